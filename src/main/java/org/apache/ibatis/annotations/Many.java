@@ -33,4 +33,14 @@ public @interface Many {
 
   FetchType fetchType() default FetchType.DEFAULT;
 
+  /**
+   * @since 3.5.3
+   */
+  String batchSelect() default "";
+
+  /**
+   * @since 3.5.3
+   */
+  String batchKeyProperty() default "";
+
 }
@@ -23,10 +23,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.defaults.DefaultCursorPublisher;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -37,6 +43,8 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
 
 /**
  * @author Clinton Begin
@@ -55,6 +63,15 @@ public class MapperMethod {
   }
 
   public Object execute(SqlSession sqlSession, Object[] args) {
+    if (method.returnsFuture()) {
+      return executeAsync(sqlSession.getConfiguration(), args);
+    } else if (method.returnsPublisher()) {
+      return executeForPublisher(sqlSession.getConfiguration(), args);
+    }
+    return executeCommand(sqlSession, args);
+  }
+
+  private Object executeCommand(SqlSession sqlSession, Object[] args) {
     Object result;
     switch (command.getType()) {
       case INSERT: {
@@ -82,6 +99,8 @@ public class MapperMethod {
           result = executeForMap(sqlSession, args);
         } else if (method.returnsCursor()) {
           result = executeForCursor(sqlSession, args);
+        } else if (method.returnsColumnar()) {
+          result = executeForColumnar(sqlSession, args);
         } else {
           Object param = method.convertArgsToSqlCommandParam(args);
           result = sqlSession.selectOne(command.getName(), param);
@@ -104,6 +123,26 @@ public class MapperMethod {
     return result;
   }
 
+  private CompletableFuture<Object> executeAsync(Configuration configuration, Object[] args) {
+    if (command.getType() == SqlCommandType.FLUSH) {
+      throw new BindingException("Mapper method '" + command.getName() + "' cannot flush statements asynchronously.");
+    }
+    Environment environment = configuration.getEnvironment();
+    if (environment != null && environment.getTransactionFactory() instanceof ManagedTransactionFactory) {
+      // the own transaction of the call would not be part of the transaction managed by the container
+      throw new BindingException("Mapper method '" + command.getName()
+          + "' cannot run asynchronously with a ManagedTransactionFactory.");
+    }
+    return CompletableFuture.supplyAsync(() -> {
+      // the statement runs in a session and a transaction of its own
+      try (SqlSession sqlSession = new DefaultSqlSessionFactory(configuration).openSession()) {
+        Object result = executeCommand(sqlSession, args);
+        sqlSession.commit();
+        return result;
+      }
+    }, configuration.getAsyncExecutor());
+  }
+
   private Object rowCountResult(int rowCount) {
     final Object result;
     if (method.returnsVoid()) {
@@ -157,6 +196,18 @@ public class MapperMethod {
     return result;
   }
 
+  private ColumnarResult executeForColumnar(SqlSession sqlSession, Object[] args) {
+    List<ColumnarResult> result;
+    Object param = method.convertArgsToSqlCommandParam(args);
+    if (method.hasRowBounds()) {
+      RowBounds rowBounds = method.extractRowBounds(args);
+      result = sqlSession.selectList(command.getName(), param, rowBounds);
+    } else {
+      result = sqlSession.selectList(command.getName(), param);
+    }
+    return result.isEmpty() ? null : result.get(0);
+  }
+
   private <T> Cursor<T> executeForCursor(SqlSession sqlSession, Object[] args) {
     Cursor<T> result;
     Object param = method.convertArgsToSqlCommandParam(args);
@@ -169,6 +220,15 @@ public class MapperMethod {
     return result;
   }
 
+  private <T> CursorPublisher<T> executeForPublisher(Configuration configuration, Object[] args) {
+    if (command.getType() != SqlCommandType.SELECT) {
+      throw new BindingException("Mapper method '" + command.getName() + "' must be a select to return a CursorPublisher.");
+    }
+    // each subscription reads the rows in a session of its own
+    return new DefaultCursorPublisher<>(new DefaultSqlSessionFactory(configuration),
+        sqlSession -> executeForCursor(sqlSession, args));
+  }
+
   private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
     Object collection = config.getObjectFactory().create(method.getReturnType());
     MetaObject metaObject = config.newMetaObject(collection);
@@ -206,12 +266,25 @@ public class MapperMethod {
 
     private static final long serialVersionUID = -2212268410512043556L;
 
+    public ParamMap() {
+      super();
+    }
+
+    /**
+     * @param expectedSize the number of entries the map will hold without being resized
+     * @since 3.5.3
+     */
+    public ParamMap(int expectedSize) {
+      super((int) (expectedSize / 0.75f) + 1);
+    }
+
     @Override
     public V get(Object key) {
-      if (!super.containsKey(key)) {
+      V value = super.get(key);
+      if (value == null && !super.containsKey(key)) {
         throw new BindingException("Parameter '" + key + "' not found. Available parameters are " + keySet());
       }
-      return super.get(key);
+      return value;
     }
 
   }
@@ -278,7 +351,10 @@ public class MapperMethod {
     private final boolean returnsMap;
     private final boolean returnsVoid;
     private final boolean returnsCursor;
+    private final boolean returnsColumnar;
     private final boolean returnsOptional;
+    private final boolean returnsFuture;
+    private final boolean returnsPublisher;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
@@ -287,6 +363,16 @@ public class MapperMethod {
 
     public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
       Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+      this.returnsFuture = CompletableFuture.class.equals(method.getReturnType())
+          || CompletionStage.class.equals(method.getReturnType());
+      if (this.returnsFuture) {
+        // the statement is executed for the type of the future's value
+        resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+            ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+        if (!(resolvedReturnType instanceof Class<?>) && !(resolvedReturnType instanceof ParameterizedType)) {
+          resolvedReturnType = Object.class;
+        }
+      }
       if (resolvedReturnType instanceof Class<?>) {
         this.returnType = (Class<?>) resolvedReturnType;
       } else if (resolvedReturnType instanceof ParameterizedType) {
@@ -294,11 +380,16 @@ public class MapperMethod {
       } else {
         this.returnType = method.getReturnType();
       }
-      this.returnsVoid = void.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || (this.returnsFuture && Void.class.equals(this.returnType));
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
+      this.returnsColumnar = ColumnarResult.class.equals(this.returnType);
+      this.returnsPublisher = CursorPublisher.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
-      this.mapKey = getMapKey(method);
+      if (this.returnsFuture && (this.returnsCursor || this.returnsPublisher)) {
+        throw new BindingException(method.getName() + " cannot return a Cursor asynchronously");
+      }
+      this.mapKey = getMapKey(method, this.returnType);
       this.returnsMap = this.mapKey != null;
       this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
       this.resultHandlerIndex = getUniqueParamIndex(method, ResultHandler.class);
@@ -349,6 +440,16 @@ public class MapperMethod {
       return returnsCursor;
     }
 
+    /**
+     * return whether return type is {@code ColumnarResult}.
+     *
+     * @return return {@code true}, if return type is {@code ColumnarResult}
+     * @since 3.5.3
+     */
+    public boolean returnsColumnar() {
+      return returnsColumnar;
+    }
+
     /**
      * return whether return type is {@code java.util.Optional}.
      * @return return {@code true}, if return type is {@code java.util.Optional}
@@ -358,6 +459,25 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * Return whether return type is {@code java.util.concurrent.CompletableFuture} or
+     * {@code java.util.concurrent.CompletionStage}. The other methods then describe the type of the future's value.
+     * @return return {@code true}, if the statement is executed asynchronously
+     * @since 3.5.3
+     */
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
+
+    /**
+     * Return whether return type is {@link CursorPublisher}.
+     * @return return {@code true}, if the items of the statement are published on demand
+     * @since 3.5.3
+     */
+    public boolean returnsPublisher() {
+      return returnsPublisher;
+    }
+
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
       final Class<?>[] argTypes = method.getParameterTypes();
@@ -373,9 +493,9 @@ public class MapperMethod {
       return index;
     }
 
-    private String getMapKey(Method method) {
+    private String getMapKey(Method method, Class<?> returnType) {
       String mapKey = null;
-      if (Map.class.isAssignableFrom(method.getReturnType())) {
+      if (Map.class.isAssignableFrom(returnType)) {
         final MapKey mapKeyAnnotation = method.getAnnotation(MapKey.class);
         if (mapKeyAnnotation != null) {
           mapKey = mapKeyAnnotation.value();
@@ -76,6 +76,11 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
 
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    // statement methods are cached after their first call, default and Object methods never are
+    final MapperMethod cached = methodCache.get(method);
+    if (cached != null) {
+      return cached.execute(sqlSession, args);
+    }
     try {
       if (Object.class.equals(method.getDeclaringClass())) {
         return method.invoke(this, args);
@@ -254,6 +254,15 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
     configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
     configuration.setDefaultResultSetType(resolveResultSetType(props.getProperty("defaultResultSetType")));
+    configuration.setBatchFlushSize(integerValueOf(props.getProperty("batchFlushSize"), null));
+    configuration.setBatchFlushBytes(integerValueOf(props.getProperty("batchFlushBytes"), null));
+    configuration.setBatchGroupStatements(booleanValueOf(props.getProperty("batchGroupStatements"), false));
+    configuration.setBatchInsertRewriteParameterLimit(integerValueOf(props.getProperty("batchInsertRewriteParameterLimit"), null));
+    configuration.setNestedSelectBatchSize(integerValueOf(props.getProperty("nestedSelectBatchSize"), null));
+    configuration.setParallelNestedSelects(booleanValueOf(props.getProperty("parallelNestedSelects"), false));
+    configuration.setNestedSelectPoolSize(integerValueOf(props.getProperty("nestedSelectPoolSize"), null));
+    configuration.setAsyncPoolSize(integerValueOf(props.getProperty("asyncPoolSize"), null));
+    configuration.setResultOrderedCheckSize(integerValueOf(props.getProperty("resultOrderedCheckSize"), 1024));
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
     configuration.setLocalCacheScope(LocalCacheScope.valueOf(props.getProperty("localCacheScope", "SESSION")));
@@ -265,7 +274,11 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+    configuration.setCompactMapResults(booleanValueOf(props.getProperty("compactMapResults"), false));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
+    configuration.setStatementLogSampleRate(integerValueOf(props.getProperty("statementLogSampleRate"), null));
+    configuration.setSlowStatementLogThreshold(integerValueOf(props.getProperty("slowStatementLogThreshold"), null));
+    configuration.setStatementMetricsEnabled(booleanValueOf(props.getProperty("statementMetricsEnabled"), false));
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
   }
 
@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Publishes the items of a cursor to a subscriber, fetching rows only as the subscriber requests them.
+ * The interfaces follow the contract of {@code java.util.concurrent.Flow} (and Reactive Streams) so that a publisher
+ * can be adapted to either with method references.
+ * <p>
+ * Each subscription runs the statement in a session of its own, which is closed when the items are exhausted, when
+ * an error occurs or when the subscription is cancelled.
+ * </p>
+ *
+ * @since 3.5.3
+ * @see Cursor
+ */
+public interface CursorPublisher<T> {
+
+  /**
+   * Starts publishing items to the subscriber. Nothing is read from the database until items are requested.
+   * @param subscriber the subscriber
+   */
+  void subscribe(Subscriber<? super T> subscriber);
+
+  /**
+   * Receiver of the items of a {@link CursorPublisher}.
+   */
+  interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+  }
+
+  /**
+   * Link between a {@link CursorPublisher} and a {@link Subscriber}.
+   */
+  interface Subscription {
+
+    /**
+     * Requests more items. Rows are fetched on the calling thread.
+     * @param n the number of additional items, must be positive
+     */
+    void request(long n);
+
+    /**
+     * Stops publishing items and closes the cursor and its session.
+     */
+    void cancel();
+  }
+}
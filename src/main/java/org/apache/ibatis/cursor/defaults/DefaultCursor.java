@@ -91,6 +91,10 @@ public class DefaultCursor<T> implements Cursor<T> {
     return rowBounds.getOffset() + cursorIterator.iteratorIndex;
   }
 
+  boolean hasNestedQueries() {
+    return resultMap.hasNestedQueries();
+  }
+
   @Override
   public Iterator<T> iterator() {
     if (iteratorRetrieved) {
@@ -0,0 +1,175 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Publisher that opens a session and a cursor for each subscription and emits the cursor items on demand.
+ * <p>
+ * Requests and cancellations may come from any thread; the cursor is only used by one thread at a time, the one whose
+ * call finds no other thread emitting.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public class DefaultCursorPublisher<T> implements CursorPublisher<T> {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Function<SqlSession, Cursor<T>> query;
+
+  /**
+   * @param sqlSessionFactory opens the session of each subscription
+   * @param query opens the cursor in the session of a subscription
+   */
+  public DefaultCursorPublisher(SqlSessionFactory sqlSessionFactory, Function<SqlSession, Cursor<T>> query) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.query = query;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    subscriber.onSubscribe(new CursorSubscription(subscriber));
+  }
+
+  private class CursorSubscription implements Subscription {
+
+    private final Subscriber<? super T> subscriber;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger pendingSignals = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile IllegalArgumentException invalidRequest;
+
+    // only used by the emitting thread
+    private boolean done;
+    private SqlSession sqlSession;
+    private Cursor<T> cursor;
+    private Iterator<T> iterator;
+
+    CursorSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("The number of requested items must be positive but was " + n);
+      } else {
+        requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    private void drain() {
+      // a call made while another thread (or onNext on this thread) is emitting is handled by that emitter
+      if (pendingSignals.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        emit();
+        missed = pendingSignals.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void emit() {
+      if (done) {
+        return;
+      }
+      if (cancelled) {
+        terminate();
+        return;
+      }
+      if (invalidRequest != null) {
+        terminate();
+        subscriber.onError(invalidRequest);
+        return;
+      }
+      final long demand = requested.get();
+      long emitted = 0;
+      while (emitted != demand && !cancelled) {
+        final T item;
+        try {
+          if (iterator == null) {
+            sqlSession = sqlSessionFactory.openSession();
+            cursor = query.apply(sqlSession);
+            iterator = cursor.iterator();
+          }
+          if (!iterator.hasNext()) {
+            terminate();
+            subscriber.onComplete();
+            return;
+          }
+          item = iterator.next();
+        } catch (RuntimeException e) {
+          terminate();
+          subscriber.onError(e);
+          return;
+        }
+        try {
+          subscriber.onNext(item);
+        } catch (RuntimeException e) {
+          // the subscriber broke rule 2.13; treat the subscription as cancelled but still release the cursor
+          terminate();
+          subscriber.onError(e);
+          return;
+        }
+        emitted++;
+      }
+      if (cancelled) {
+        terminate();
+      } else if (demand != Long.MAX_VALUE) {
+        requested.addAndGet(-emitted);
+      }
+    }
+
+    private void terminate() {
+      done = true;
+      try {
+        if (cursor != null) {
+          cursor.close();
+        }
+      } catch (IOException e) {
+        // ignore
+      } finally {
+        if (sqlSession != null) {
+          sqlSession.close();
+        }
+        cursor = null;
+        iterator = null;
+        sqlSession = null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,219 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * A cursor that fetches and maps the rows of another cursor on a background thread while the caller processes the
+ * previous ones. At most <code>prefetchSize</code> items are buffered; the background thread waits when the buffer is
+ * full.
+ * <p>
+ * Prefetching is enabled per call by wrapping the cursor returned by a mapper:
+ * </p>
+ * <pre>
+ * try (Cursor&lt;User&gt; users = new PrefetchingCursor&lt;&gt;(mapper.scanUsers(), 100, null)) {
+ *   ...
+ * }
+ * </pre>
+ * <p>
+ * The background thread reads the ResultSet over the connection of the session. Until the cursor is consumed or
+ * closed, the session must not execute other statements, and statements with nested selects cannot be prefetched.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private static final Object END = new Object();
+  private static final Object NULL_ITEM = new Object();
+
+  private final Cursor<T> delegate;
+  private final Executor threadExecutor;
+  private final BlockingQueue<Object> buffer;
+  private final CountDownLatch producerDone = new CountDownLatch(1);
+  private final PrefetchingIterator cursorIterator = new PrefetchingIterator();
+
+  private volatile boolean closed;
+  private volatile RuntimeException failure;
+  private boolean started;
+  private boolean consumed;
+  private int currentIndex;
+
+  /**
+   * @param delegate the cursor to read ahead
+   * @param prefetchSize the maximum number of buffered items
+   * @param threadExecutor executes the background fetch (null to start a new daemon thread)
+   * @throws IllegalArgumentException if the delegate runs nested selects on the session while mapping rows
+   */
+  public PrefetchingCursor(Cursor<T> delegate, int prefetchSize, Executor threadExecutor) {
+    if (delegate instanceof DefaultCursor && ((DefaultCursor<T>) delegate).hasNestedQueries()) {
+      throw new IllegalArgumentException("Cannot prefetch a cursor whose result map has nested selects.");
+    }
+    this.delegate = delegate;
+    this.buffer = new ArrayBlockingQueue<>(prefetchSize);
+    this.threadExecutor = threadExecutor;
+    this.currentIndex = delegate.getCurrentIndex();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return started && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return currentIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (started) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    started = true;
+    if (threadExecutor == null) {
+      Thread thread = new Thread(this::prefetch, "mybatis-cursor-prefetch");
+      thread.setDaemon(true);
+      thread.start();
+    } else {
+      threadExecutor.execute(this::prefetch);
+    }
+    return cursorIterator;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (started) {
+      // unblock the background thread and wait until it has closed the delegate
+      buffer.clear();
+      try {
+        producerDone.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    } else {
+      closeDelegate();
+    }
+  }
+
+  private void prefetch() {
+    try {
+      for (T item : delegate) {
+        if (closed) {
+          break;
+        }
+        buffer.put(item == null ? NULL_ITEM : item);
+      }
+    } catch (RuntimeException e) {
+      failure = e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure = new ExecutorException("Interrupted while prefetching cursor items.", e);
+    } finally {
+      closeDelegate();
+      producerDone.countDown();
+      if (!closed) {
+        // the buffer may be full, the consumer will take the end marker after the remaining items
+        try {
+          buffer.put(END);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  private void closeDelegate() {
+    try {
+      delegate.close();
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
+  private class PrefetchingIterator implements Iterator<T> {
+
+    private Object next;
+
+    @Override
+    public boolean hasNext() {
+      if (next == null) {
+        next = take();
+      }
+      return next != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T item = next == NULL_ITEM ? null : (T) next;
+      next = null;
+      currentIndex++;
+      return item;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+
+    private Object take() {
+      if (closed || consumed) {
+        return END;
+      }
+      Object item;
+      try {
+        item = buffer.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ExecutorException("Interrupted while waiting for cursor items.", e);
+      }
+      if (item == END) {
+        consumed = true;
+        if (failure != null) {
+          throw failure;
+        }
+      }
+      return item;
+    }
+  }
+
+}
@@ -19,7 +19,9 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -29,6 +31,7 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String PREPARE_STATEMENT = "prepareStatement";
   private static final Class<?>[] IFACES = new Class<?>[] { Connection.class };
 
   private final int hashCode;
@@ -40,6 +43,7 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private PooledStatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -91,6 +95,37 @@ class PooledConnection implements InvocationHandler {
     return proxyConnection;
   }
 
+  /**
+   * Getter for the prepared statement cache of the real connection.
+   *
+   * @return The statement cache (or null if statement caching is disabled)
+   * @since 3.5.3
+   */
+  PooledStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Setter for the prepared statement cache, used to hand the cache over when the real connection is wrapped again.
+   *
+   * @param statementCache - the statement cache of the real connection
+   * @since 3.5.3
+   */
+  void setStatementCache(PooledStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
+  /**
+   * Closes the cached statements of the real connection, must be called before the real connection is closed.
+   *
+   * @since 3.5.3
+   */
+  void clearStatementCache() {
+    if (statementCache != null) {
+      statementCache.clear();
+    }
+  }
+
   /**
    * Gets the hashcode of the real connection (or 0 if it is null).
    *
@@ -242,6 +277,12 @@ class PooledConnection implements InvocationHandler {
         // throw an SQLException instead of a Runtime
         checkConnection();
       }
+      if (PREPARE_STATEMENT.equals(methodName) && dataSource.getPoolStatementCacheSize() > 0) {
+        List<Object> key = PooledStatementCache.keyFor(args);
+        if (key != null) {
+          return prepareCachedStatement(method, args, key);
+        }
+      }
       return method.invoke(realConnection, args);
     } catch (Throwable t) {
       throw ExceptionUtil.unwrapThrowable(t);
@@ -249,6 +290,17 @@ class PooledConnection implements InvocationHandler {
 
   }
 
+  private PreparedStatement prepareCachedStatement(Method method, Object[] args, List<Object> key) throws Exception {
+    if (statementCache == null) {
+      statementCache = new PooledStatementCache(dataSource.getPoolStatementCacheSize());
+    }
+    PreparedStatement statement = statementCache.checkout(key);
+    if (statement == null) {
+      statement = (PreparedStatement) method.invoke(realConnection, args);
+    }
+    return new PooledStatement(statementCache, key, statement, proxyConnection).getProxyStatement();
+  }
+
   private void checkConnection() throws SQLException {
     if (!valid) {
       throw new SQLException("Error accessing PooledConnection. Connection is invalid.");
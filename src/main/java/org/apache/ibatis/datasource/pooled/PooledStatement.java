@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Proxy handed out for a cacheable prepared statement. Closing it returns the real statement to the
+ * {@link PooledStatementCache} of its physical connection instead of closing it.
+ *
+ * @since 3.5.3
+ */
+class PooledStatement implements InvocationHandler {
+
+  private static final String CLOSE = "close";
+  private static final String IS_CLOSED = "isClosed";
+  private static final String GET_CONNECTION = "getConnection";
+  private static final Class<?>[] IFACES = new Class<?>[] { PreparedStatement.class };
+
+  private final PooledStatementCache cache;
+  private final List<Object> key;
+  private final PreparedStatement realStatement;
+  private final Connection proxyConnection;
+  private final int defaultQueryTimeout;
+  private final int defaultFetchSize;
+  private final int defaultMaxRows;
+  private final int defaultMaxFieldSize;
+  private final int defaultFetchDirection;
+  private final boolean defaultPoolable;
+  private final PreparedStatement proxyStatement;
+  // the last result set handed out, e.g. by executeQuery, which drivers do not always return from getResultSet
+  private ResultSet resultSet;
+  private boolean closed;
+
+  PooledStatement(PooledStatementCache cache, List<Object> key, PreparedStatement realStatement,
+      Connection proxyConnection) throws SQLException {
+    this.cache = cache;
+    this.key = key;
+    this.realStatement = realStatement;
+    this.proxyConnection = proxyConnection;
+    this.defaultQueryTimeout = realStatement.getQueryTimeout();
+    this.defaultFetchSize = realStatement.getFetchSize();
+    this.defaultMaxRows = realStatement.getMaxRows();
+    this.defaultMaxFieldSize = realStatement.getMaxFieldSize();
+    this.defaultFetchDirection = realStatement.getFetchDirection();
+    this.defaultPoolable = realStatement.isPoolable();
+    this.proxyStatement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES, this);
+  }
+
+  public PreparedStatement getProxyStatement() {
+    return proxyStatement;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    String methodName = method.getName();
+    if (CLOSE.equals(methodName)) {
+      if (!closed) {
+        closed = true;
+        release();
+      }
+      return null;
+    } else if (IS_CLOSED.equals(methodName)) {
+      return closed || realStatement.isClosed();
+    } else if (GET_CONNECTION.equals(methodName)) {
+      // never expose the real connection, closing it would bypass the pool
+      return proxyConnection;
+    }
+    try {
+      if (closed && !Object.class.equals(method.getDeclaringClass())) {
+        throw new SQLException("Error accessing PooledStatement. Statement is closed.");
+      }
+      Object result = method.invoke(realStatement, args);
+      if (result instanceof ResultSet) {
+        resultSet = (ResultSet) result;
+      }
+      return result;
+    } catch (Throwable t) {
+      throw ExceptionUtil.unwrapThrowable(t);
+    }
+  }
+
+  private void release() {
+    try {
+      if (realStatement.isClosed()) {
+        return;
+      }
+      if (realStatement.isCloseOnCompletion()) {
+        // cannot be turned off again
+        PooledStatementCache.close(realStatement);
+        return;
+      }
+      if (resultSet != null) {
+        resultSet.close();
+        resultSet = null;
+      }
+      ResultSet currentResultSet = realStatement.getResultSet();
+      if (currentResultSet != null) {
+        currentResultSet.close();
+      }
+      // reset the state a previous user may have changed
+      realStatement.clearParameters();
+      realStatement.clearBatch();
+      realStatement.clearWarnings();
+      realStatement.setQueryTimeout(defaultQueryTimeout);
+      realStatement.setFetchSize(defaultFetchSize);
+      realStatement.setMaxRows(defaultMaxRows);
+      realStatement.setMaxFieldSize(defaultMaxFieldSize);
+      realStatement.setFetchDirection(defaultFetchDirection);
+      realStatement.setPoolable(defaultPoolable);
+      // there is no getter, escape processing is on by default
+      realStatement.setEscapeProcessing(true);
+    } catch (SQLException e) {
+      PooledStatementCache.close(realStatement);
+      return;
+    }
+    cache.checkin(key, realStatement);
+  }
+
+}
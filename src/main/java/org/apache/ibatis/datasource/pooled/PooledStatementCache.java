@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * LRU cache of prepared statements that belongs to one physical connection.
+ * <p>
+ * Statements are checked out of the cache while in use and returned to it when the caller closes them, so the same
+ * statement is never handed out twice. The cache outlives the {@link PooledConnection} wrappers created each time the
+ * physical connection goes through the pool, which lets statements survive session boundaries.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+class PooledStatementCache {
+
+  private static final Log log = LogFactory.getLog(PooledStatementCache.class);
+
+  private final int maxSize;
+  private final Map<List<Object>, PreparedStatement> statements = new LinkedHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+
+  PooledStatementCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Builds the cache key for the arguments of a <code>Connection.prepareStatement</code> call.
+   *
+   * @param args the arguments passed to <code>prepareStatement</code>
+   * @return the key, or <code>null</code> if the statement should not be cached (e.g. key column names)
+   */
+  static List<Object> keyFor(Object[] args) {
+    if (args == null || args.length == 0 || !(args[0] instanceof String)) {
+      return null;
+    }
+    for (int i = 1; i < args.length; i++) {
+      if (!(args[i] instanceof Integer)) {
+        return null;
+      }
+    }
+    return Arrays.asList(args);
+  }
+
+  /**
+   * Checks out the statement cached for the key.
+   *
+   * @param key the statement key
+   * @return the statement, or <code>null</code> if none is available
+   */
+  PreparedStatement checkout(List<Object> key) {
+    lock.lock();
+    try {
+      return statements.remove(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns a statement to the cache, evicting the least recently used one if the cache is full.
+   *
+   * @param key the statement key
+   * @param statement the statement to cache
+   */
+  void checkin(List<Object> key, PreparedStatement statement) {
+    PreparedStatement replaced;
+    PreparedStatement evicted = null;
+    lock.lock();
+    try {
+      replaced = statements.put(key, statement);
+      if (replaced == null && statements.size() > maxSize) {
+        Iterator<PreparedStatement> iterator = statements.values().iterator();
+        evicted = iterator.next();
+        iterator.remove();
+      }
+    } finally {
+      lock.unlock();
+    }
+    close(replaced);
+    close(evicted);
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return statements.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes all the cached statements.
+   */
+  void clear() {
+    PreparedStatement[] cached;
+    lock.lock();
+    try {
+      cached = statements.values().toArray(new PreparedStatement[0]);
+      statements.clear();
+    } finally {
+      lock.unlock();
+    }
+    for (PreparedStatement statement : cached) {
+      close(statement);
+    }
+  }
+
+  static void close(PreparedStatement statement) {
+    if (statement == null) {
+      return;
+    }
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Error closing cached statement: " + e.getMessage());
+      }
+    }
+  }
+
+}
@@ -22,14 +22,18 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.listener.ExecutionListener;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.logging.jdbc.ConnectionLogger;
+import org.apache.ibatis.logging.jdbc.SlowStatementLogger;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -39,6 +43,7 @@ import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -114,7 +119,19 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
-    return doUpdate(ms, parameter);
+    if (queuesUpdates() || !isObserved(ms)) {
+      return doUpdate(ms, parameter);
+    }
+    long start = beforeExecution(ms, parameter);
+    int updated;
+    try {
+      updated = doUpdate(ms, parameter);
+    } catch (SQLException | RuntimeException e) {
+      recordError(ms, parameter, start, e);
+      throw e;
+    }
+    recordExecution(ms, parameter, null, start, updated);
+    return updated;
   }
 
   @Override
@@ -152,6 +169,10 @@ public abstract class BaseExecutor implements Executor {
       list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
       if (list != null) {
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
+        ExecutionListener listener = configuration.getExecutionListener();
+        if (listener != null) {
+          listener.cacheHit(ms, parameter, false);
+        }
       } else {
         list = queryFromDatabase(ms, parameter, rowBounds, resultHandler, key, boundSql);
       }
@@ -175,7 +196,19 @@ public abstract class BaseExecutor implements Executor {
   @Override
   public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
     BoundSql boundSql = ms.getBoundSql(parameter);
-    return doQueryCursor(ms, parameter, rowBounds, boundSql);
+    if (!isObserved(ms)) {
+      return doQueryCursor(ms, parameter, rowBounds, boundSql);
+    }
+    long start = beforeExecution(ms, parameter);
+    Cursor<E> cursor;
+    try {
+      cursor = doQueryCursor(ms, parameter, rowBounds, boundSql);
+    } catch (SQLException | RuntimeException e) {
+      recordError(ms, parameter, start, e);
+      throw e;
+    }
+    recordExecution(ms, parameter, boundSql, start, -1);
+    return cursor;
   }
 
   @Override
@@ -321,7 +354,20 @@ public abstract class BaseExecutor implements Executor {
     List<E> list;
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
     try {
-      list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      if (isObserved(ms)) {
+        long start = beforeExecution(ms, parameter);
+        // rows handed to a result handler are not collected in the returned list
+        RowCountingResultHandler rowCounter = resultHandler == null ? null : new RowCountingResultHandler(resultHandler);
+        try {
+          list = doQuery(ms, parameter, rowBounds, rowCounter, boundSql);
+        } catch (SQLException | RuntimeException e) {
+          recordError(ms, parameter, start, e);
+          throw e;
+        }
+        recordExecution(ms, parameter, boundSql, start, rowCounter == null ? list.size() : rowCounter.rowCount);
+      } else {
+        list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      }
     } finally {
       localCache.removeObject(key);
     }
@@ -334,18 +380,128 @@ public abstract class BaseExecutor implements Executor {
 
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
-    if (statementLog.isDebugEnabled()) {
+    ExecutionListener listener = configuration.getExecutionListener();
+    if (listener != null) {
+      listener.connectionAcquired(connection);
+    }
+    if (statementLog.isDebugEnabled() && isStatementLogSampled()) {
       return ConnectionLogger.newInstance(connection, statementLog, queryStack);
     } else {
       return connection;
     }
   }
 
+  private boolean isStatementLogSampled() {
+    if (configuration.getSlowStatementLogThreshold() != null) {
+      // only slow statements are logged, see recordExecution
+      return false;
+    }
+    Integer sampleRate = configuration.getStatementLogSampleRate();
+    return sampleRate == null || sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+  }
+
+  /**
+   * Whether {@link #doUpdate} only queues the updates, to execute them when the statements are flushed. The execution
+   * of queued updates is recorded by the executor when it flushes them, see {@link #recordBatchExecution}.
+   *
+   * @since 3.5.3
+   */
+  protected boolean queuesUpdates() {
+    return false;
+  }
+
+  protected boolean isObserved(MappedStatement ms) {
+    return configuration.getExecutionListener() != null || configuration.isStatementMetricsEnabled()
+        || configuration.getSlowStatementLogThreshold() != null && ms.getStatementLog().isDebugEnabled();
+  }
+
+  protected long beforeExecution(MappedStatement ms, Object parameter) {
+    ExecutionListener listener = configuration.getExecutionListener();
+    if (listener != null) {
+      listener.beforeExecute(ms, parameter);
+    }
+    return System.nanoTime();
+  }
+
+  private void recordExecution(MappedStatement ms, Object parameter, BoundSql boundSql, long start, int rows) {
+    long elapsedNanos = System.nanoTime() - start;
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    Integer threshold = configuration.getSlowStatementLogThreshold();
+    boolean slow = threshold != null && elapsedMillis >= threshold;
+    if (configuration.isStatementMetricsEnabled()) {
+      configuration.getStatementMetricsRegistry().getMetrics(ms.getId()).recordExecution(elapsedNanos, rows, slow);
+    }
+    if (slow && ms.getStatementLog().isDebugEnabled()) {
+      SlowStatementLogger.log(ms.getStatementLog(), configuration, boundSql == null ? ms.getBoundSql(parameter) : boundSql,
+          parameter, elapsedMillis, queryStack);
+    }
+    ExecutionListener listener = configuration.getExecutionListener();
+    if (listener != null) {
+      listener.afterExecute(ms, parameter, null);
+    }
+  }
+
+  /**
+   * Records the execution of a batch of queued updates.
+   *
+   * @param ms the statement
+   * @param parameterObjects the parameter objects of the batch
+   * @param start the value returned by {@link #beforeExecution}
+   * @param updateCounts the update counts returned by the driver
+   * @since 3.5.3
+   */
+  protected void recordBatchExecution(MappedStatement ms, List<Object> parameterObjects, long start, int[] updateCounts) {
+    long elapsedNanos = System.nanoTime() - start;
+    if (configuration.isStatementMetricsEnabled()) {
+      int rows = 0;
+      for (int updateCount : updateCounts) {
+        // Statement.SUCCESS_NO_INFO and EXECUTE_FAILED are negative
+        if (updateCount > 0) {
+          rows += updateCount;
+        }
+      }
+      Integer threshold = configuration.getSlowStatementLogThreshold();
+      boolean slow = threshold != null && TimeUnit.NANOSECONDS.toMillis(elapsedNanos) >= threshold;
+      configuration.getStatementMetricsRegistry().getMetrics(ms.getId()).recordExecution(elapsedNanos, rows, slow);
+    }
+    ExecutionListener listener = configuration.getExecutionListener();
+    if (listener != null) {
+      listener.afterExecute(ms, parameterObjects, null);
+    }
+  }
+
+  protected void recordError(MappedStatement ms, Object parameter, long start, Exception e) {
+    if (configuration.isStatementMetricsEnabled()) {
+      configuration.getStatementMetricsRegistry().getMetrics(ms.getId()).recordError(System.nanoTime() - start);
+    }
+    ExecutionListener listener = configuration.getExecutionListener();
+    if (listener != null) {
+      listener.afterExecute(ms, parameter, e);
+    }
+  }
+
   @Override
   public void setExecutorWrapper(Executor wrapper) {
     this.wrapper = wrapper;
   }
 
+  private static class RowCountingResultHandler implements ResultHandler<Object> {
+
+    private final ResultHandler<Object> delegate;
+    private int rowCount;
+
+    @SuppressWarnings("unchecked")
+    RowCountingResultHandler(ResultHandler<?> delegate) {
+      this.delegate = (ResultHandler<Object>) delegate;
+    }
+
+    @Override
+    public void handleResult(ResultContext<?> resultContext) {
+      rowCount++;
+      delegate.handleResult(resultContext);
+    }
+  }
+
   private static class DeferredLoad {
 
     private final MetaObject resultObject;
@@ -17,11 +17,19 @@ package org.apache.ibatis.executor;
 
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -30,6 +38,11 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -42,10 +55,20 @@ public class BatchExecutor extends BaseExecutor {
 
   public static final int BATCH_UPDATE_RETURN_VALUE = Integer.MIN_VALUE + 1002;
 
+  private static final Pattern TARGET_TABLE = Pattern.compile(
+      "^\\s*(?:insert\\s+(?:into\\s+)?|update\\s+|delete\\s+(?:from\\s+)?|merge\\s+(?:into\\s+)?)([^\\s(]+)",
+      Pattern.CASE_INSENSITIVE);
+
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  private final List<MultiRowInsert> multiRowInsertList = new ArrayList<>();
+  private final List<BatchResult> flushedResultList = new ArrayList<>();
+  // statements rows can still be added to with batchGroupStatements, by mapped statement and SQL
+  private final Map<MappedStatement, Map<String, GroupedBatch>> groupedBatches = new HashMap<>();
   private String currentSql;
   private MappedStatement currentStatement;
+  // estimated size of the pending rows, only counted with batchFlushBytes
+  private long pendingBytes;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -58,26 +81,62 @@ public class BatchExecutor extends BaseExecutor {
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
     final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
-      applyTransactionTimeout(stmt);
-      handler.parameterize(stmt);//fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
+    final BatchResult batchResult;
+    final MultiRowInsert multiRowInsert;
+    final int index = findBatch(ms, sql);
+    if (index >= 0) {
+      stmt = statementList.get(index);
+      multiRowInsert = multiRowInsertList.get(index);
+      if (multiRowInsert == null) {
+        applyTransactionTimeout(stmt);
+        handler.parameterize(stmt);//fix Issues 322
+      }
+      batchResult = batchResultList.get(index);
       batchResult.addParameterObject(parameterObject);
     } else {
-      Connection connection = getConnection(ms.getStatementLog());
-      stmt = handler.prepare(connection, transaction.getTimeout());
-      handler.parameterize(stmt);    //fix Issues 322
+      multiRowInsert = createMultiRowInsert(ms, boundSql);
+      if (multiRowInsert == null) {
+        Connection connection = getConnection(ms.getStatementLog());
+        stmt = handler.prepare(connection, transaction.getTimeout());
+        handler.parameterize(stmt);    //fix Issues 322
+      } else {
+        // the rows are executed by multi-row statements, the single-row one is never prepared
+        stmt = null;
+      }
       currentSql = sql;
       currentStatement = ms;
       statementList.add(stmt);
-      batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      multiRowInsertList.add(multiRowInsert);
+      batchResult = new BatchResult(ms, sql, parameterObject);
+      batchResultList.add(batchResult);
+      if (configuration.isBatchGroupStatements()) {
+        String table = getTargetTable(sql);
+        closeGroupedBatches(table);
+        groupedBatches.computeIfAbsent(ms, k -> new HashMap<>()).put(sql, new GroupedBatch(statementList.size() - 1, table));
+      }
+    }
+    if (multiRowInsert == null) {
+      handler.batch(stmt);
+    } else {
+      multiRowInsert.addRow(handler.getParameterHandler(), transaction.getConnection());
+    }
+    Integer batchFlushSize = configuration.getBatchFlushSize();
+    Integer batchFlushBytes = configuration.getBatchFlushBytes();
+    if (batchFlushBytes != null) {
+      pendingBytes += estimateRowBytes(boundSql);
+    }
+    if (batchFlushSize != null && batchResult.getParameterObjects().size() >= batchFlushSize
+        || batchFlushBytes != null && pendingBytes >= batchFlushBytes) {
+      autoFlush();
     }
-    handler.batch(stmt);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  @Override
+  protected boolean queuesUpdates() {
+    return true;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -110,27 +169,138 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<>();
       if (isRollback) {
         return Collections.emptyList();
       }
-      for (int i = 0, n = statementList.size(); i < n; i++) {
-        Statement stmt = statementList.get(i);
-        applyTransactionTimeout(stmt);
-        BatchResult batchResult = batchResultList.get(i);
+      List<BatchResult> results = new ArrayList<>(flushedResultList);
+      executeBatches(statementList, batchResultList, multiRowInsertList, results);
+      return results;
+    } finally {
+      for (Statement stmt : statementList) {
+        closeStatement(stmt);
+      }
+      currentSql = null;
+      statementList.clear();
+      batchResultList.clear();
+      multiRowInsertList.clear();
+      groupedBatches.clear();
+      flushedResultList.clear();
+      pendingBytes = 0;
+    }
+  }
+
+  /**
+   * Finds the pending statement the row can be added to. By default only the last statement is reused, with
+   * <code>batchGroupStatements</code> a pending statement is reused until another statement writes to its table.
+   */
+  private int findBatch(MappedStatement ms, String sql) {
+    if (configuration.isBatchGroupStatements()) {
+      Map<String, GroupedBatch> batches = groupedBatches.get(ms);
+      GroupedBatch batch = batches == null ? null : batches.get(sql);
+      return batch == null ? -1 : batch.index;
+    }
+    return sql.equals(currentSql) && ms.equals(currentStatement) ? statementList.size() - 1 : -1;
+  }
+
+  /**
+   * Stops adding rows to the pending statements writing to a table a new statement writes to, so the rows of a table
+   * are executed in the order they were added. An unknown table conflicts with every statement. The statements opened
+   * after the first closed one are closed as well: a row added to them would run before the rows of the closed
+   * statement and of the new one, e.g. a child row before its parent.
+   */
+  private void closeGroupedBatches(String table) {
+    int firstClosed = Integer.MAX_VALUE;
+    for (Map<String, GroupedBatch> batches : groupedBatches.values()) {
+      for (GroupedBatch batch : batches.values()) {
+        if (table == null || batch.table == null || batch.table.equals(table)) {
+          firstClosed = Math.min(firstClosed, batch.index);
+        }
+      }
+    }
+    if (firstClosed == Integer.MAX_VALUE) {
+      return;
+    }
+    final int closedIndex = firstClosed;
+    for (Iterator<Map<String, GroupedBatch>> iterator = groupedBatches.values().iterator(); iterator.hasNext();) {
+      Map<String, GroupedBatch> batches = iterator.next();
+      batches.values().removeIf(batch -> batch.index >= closedIndex);
+      if (batches.isEmpty()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private static String getTargetTable(String sql) {
+    Matcher matcher = TARGET_TABLE.matcher(sql);
+    return matcher.find() ? matcher.group(1).toLowerCase(Locale.ENGLISH) : null;
+  }
+
+  /**
+   * Executes the pending statements once the current batch reached the <code>batchFlushSize</code>, or the pending rows
+   * the <code>batchFlushBytes</code>. The results are
+   * summarized in {@link #flushedResultList} so parameter objects are not retained until the final flush.
+   */
+  private void autoFlush() throws SQLException {
+    final List<Statement> statements = new ArrayList<>(statementList);
+    final List<BatchResult> batchResults = new ArrayList<>(batchResultList);
+    final List<MultiRowInsert> multiRowInserts = new ArrayList<>(multiRowInsertList);
+    currentSql = null;
+    currentStatement = null;
+    statementList.clear();
+    batchResultList.clear();
+    multiRowInsertList.clear();
+    groupedBatches.clear();
+    pendingBytes = 0;
+    executeBatches(statements, batchResults, multiRowInserts, flushedResultList);
+  }
+
+  /**
+   * Estimates the size of the parameters bound for a row, resolving them like the default parameter handler.
+   */
+  private long estimateRowBytes(BoundSql boundSql) {
+    final Object parameterObject = boundSql.getParameterObject();
+    final boolean parameterHasTypeHandler = parameterObject != null
+        && configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
+    MetaObject metaObject = null;
+    long bytes = 0;
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      final String propertyName = parameterMapping.getProperty();
+      final Object value;
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (parameterHasTypeHandler) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      if (value instanceof CharSequence) {
+        bytes += ((CharSequence) value).length();
+      } else if (value instanceof byte[]) {
+        bytes += ((byte[]) value).length;
+      } else {
+        bytes += 8;
+      }
+    }
+    return bytes;
+  }
+
+  private void executeBatches(List<Statement> statements, List<BatchResult> batchResults,
+      List<MultiRowInsert> multiRowInserts, List<BatchResult> results) throws SQLException {
+    try {
+      for (int i = 0, n = statements.size(); i < n; i++) {
+        Statement stmt = statements.get(i);
+        BatchResult batchResult = batchResults.get(i);
+        MultiRowInsert multiRowInsert = multiRowInserts.get(i);
         try {
-          batchResult.setUpdateCounts(stmt.executeBatch());
-          MappedStatement ms = batchResult.getMappedStatement();
-          List<Object> parameterObjects = batchResult.getParameterObjects();
-          KeyGenerator keyGenerator = ms.getKeyGenerator();
-          if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
-            Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
-            jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
-          } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
-            for (Object parameter : parameterObjects) {
-              keyGenerator.processAfter(this, ms, stmt, parameter);
-            }
-          }
+          executeBatch(stmt, batchResult, multiRowInsert);
           // Close statement to close cursor #1109
           closeStatement(stmt);
         } catch (BatchUpdateException e) {
@@ -145,18 +315,145 @@ public class BatchExecutor extends BaseExecutor {
                 .append(i)
                 .append(" prior sub executor(s) completed successfully, but will be rolled back.");
           }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          throw new BatchExecutorException(message.toString(), e, new ArrayList<>(results), batchResult);
         }
-        results.add(batchResult);
+        addResult(results, batchResult, results != flushedResultList);
       }
-      return results;
     } finally {
-      for (Statement stmt : statementList) {
+      for (Statement stmt : statements) {
         closeStatement(stmt);
       }
-      currentSql = null;
-      statementList.clear();
-      batchResultList.clear();
+    }
+  }
+
+  private void executeBatch(Statement stmt, BatchResult batchResult, MultiRowInsert multiRowInsert) throws SQLException {
+    MappedStatement ms = batchResult.getMappedStatement();
+    boolean observed = isObserved(ms);
+    long start = observed ? beforeExecution(ms, batchResult.getParameterObjects()) : 0L;
+    try {
+      if (multiRowInsert != null) {
+        batchResult.setUpdateCounts(executeMultiRowInsert(batchResult, multiRowInsert));
+      } else {
+        applyTransactionTimeout(stmt);
+        batchResult.setUpdateCounts(executeTimed(ms, stmt));
+        processGeneratedKeys(ms, stmt, batchResult.getParameterObjects());
+      }
+    } catch (SQLException | RuntimeException e) {
+      if (observed) {
+        recordError(ms, batchResult.getParameterObjects(), start, e);
+      }
+      throw e;
+    }
+    if (observed) {
+      recordBatchExecution(ms, batchResult.getParameterObjects(), start, batchResult.getUpdateCounts());
+    }
+  }
+
+  /**
+   * Executes the batch of the statement, adding its duration to the execute time of the statement metrics.
+   */
+  private int[] executeTimed(MappedStatement ms, Statement stmt) throws SQLException {
+    if (!configuration.isStatementMetricsEnabled()) {
+      return stmt.executeBatch();
+    }
+    long start = System.nanoTime();
+    try {
+      return stmt.executeBatch();
+    } finally {
+      configuration.getStatementMetricsRegistry().getMetrics(ms.getId()).addExecuteTime(System.nanoTime() - start);
+    }
+  }
+
+  private void processGeneratedKeys(MappedStatement ms, Statement stmt, List<Object> parameterObjects) {
+    KeyGenerator keyGenerator = ms.getKeyGenerator();
+    if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
+      Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
+      jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
+    } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
+      for (Object parameter : parameterObjects) {
+        keyGenerator.processAfter(this, ms, stmt, parameter);
+      }
+    }
+  }
+
+  /**
+   * Rewrites a single-row insert into a multi-row insert when <code>batchInsertRewriteParameterLimit</code> is set.
+   * Statements using a key generator other than the JDBC 3 one are not rewritten.
+   */
+  private MultiRowInsert createMultiRowInsert(MappedStatement ms, BoundSql boundSql) {
+    Integer parameterLimit = configuration.getBatchInsertRewriteParameterLimit();
+    if (parameterLimit == null
+        || ms.getSqlCommandType() != SqlCommandType.INSERT
+        || ms.getStatementType() != StatementType.PREPARED) {
+      return null;
+    }
+    Class<?> keyGeneratorType = ms.getKeyGenerator().getClass();
+    if (!Jdbc3KeyGenerator.class.equals(keyGeneratorType) && !NoKeyGenerator.class.equals(keyGeneratorType)) {
+      return null;
+    }
+    return MultiRowInsert.parse(boundSql.getSql(), boundSql.getParameterMappings().size(), parameterLimit);
+  }
+
+  /**
+   * Executes the collected rows as multi-row inserts: one JDBC batch of statements holding the maximum number of rows,
+   * then one statement for the remaining rows. There is one update count per executed statement.
+   */
+  private int[] executeMultiRowInsert(BatchResult batchResult, MultiRowInsert multiRowInsert) throws SQLException {
+    MappedStatement ms = batchResult.getMappedStatement();
+    List<Object> parameterObjects = batchResult.getParameterObjects();
+    int[] updateCounts = new int[0];
+    int rowCount = multiRowInsert.size();
+    int row = 0;
+    while (row < rowCount) {
+      int rowsPerStatement = Math.min(multiRowInsert.getRowsPerStatement(), rowCount - row);
+      int executions = rowsPerStatement == multiRowInsert.getRowsPerStatement() ? (rowCount - row) / rowsPerStatement : 1;
+      Object parameterObject = parameterObjects.get(row);
+      BoundSql boundSql = new BoundSql(configuration, multiRowInsert.getSql(rowsPerStatement), Collections.emptyList(), parameterObject);
+      StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, boundSql);
+      Statement stmt = handler.prepare(getConnection(ms.getStatementLog()), transaction.getTimeout());
+      try {
+        int firstRow = row;
+        for (int i = 0; i < executions; i++) {
+          for (int position = 0; position < rowsPerStatement; position++) {
+            multiRowInsert.bind((PreparedStatement) stmt, row++, position);
+          }
+          handler.batch(stmt);
+        }
+        int[] executed = executeTimed(ms, stmt);
+        updateCounts = Arrays.copyOf(updateCounts, updateCounts.length + executed.length);
+        System.arraycopy(executed, 0, updateCounts, updateCounts.length - executed.length, executed.length);
+        processGeneratedKeys(ms, stmt, new ArrayList<>(parameterObjects.subList(firstRow, row)));
+      } finally {
+        closeStatement(stmt);
+      }
+    }
+    return updateCounts;
+  }
+
+  private void addResult(List<BatchResult> results, BatchResult batchResult, boolean keepParameterObjects) {
+    if (keepParameterObjects) {
+      results.add(batchResult);
+      return;
+    }
+    // auto flushed batches of the same statement are merged into one summary without parameter objects
+    for (BatchResult summary : results) {
+      if (summary.getMappedStatement().equals(batchResult.getMappedStatement())
+          && summary.getSql().equals(batchResult.getSql())) {
+        summary.appendUpdateCounts(batchResult.getUpdateCounts());
+        return;
+      }
+    }
+    batchResult.clearParameterObjects();
+    results.add(batchResult);
+  }
+
+  private static class GroupedBatch {
+    private final int index;
+    private final String table;
+
+    GroupedBatch(int index, String table) {
+      this.index = index;
+      this.table = table;
     }
   }
 
@@ -16,6 +16,7 @@
 package org.apache.ibatis.executor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ibatis.mapping.MappedStatement;
@@ -30,6 +31,7 @@ public class BatchResult {
   private final List<Object> parameterObjects;
 
   private int[] updateCounts;
+  private int updateCountSize;
 
   public BatchResult(MappedStatement mappedStatement, String sql) {
     super();
@@ -61,15 +63,47 @@ public class BatchResult {
   }
 
   public int[] getUpdateCounts() {
+    if (updateCounts != null && updateCounts.length != updateCountSize) {
+      updateCounts = Arrays.copyOf(updateCounts, updateCountSize);
+    }
     return updateCounts;
   }
 
   public void setUpdateCounts(int[] updateCounts) {
     this.updateCounts = updateCounts;
+    this.updateCountSize = updateCounts == null ? 0 : updateCounts.length;
   }
 
   public void addParameterObject(Object parameterObject) {
     this.parameterObjects.add(parameterObject);
   }
 
+  /**
+   * Appends the update counts of another execution of the same statement.
+   *
+   * @param updateCounts the update counts to append
+   * @since 3.5.3
+   */
+  public void appendUpdateCounts(int[] updateCounts) {
+    if (this.updateCounts == null) {
+      setUpdateCounts(updateCounts);
+      return;
+    }
+    int required = updateCountSize + updateCounts.length;
+    if (required > this.updateCounts.length) {
+      this.updateCounts = Arrays.copyOf(this.updateCounts, Math.max(this.updateCounts.length * 2, required));
+    }
+    System.arraycopy(updateCounts, 0, this.updateCounts, updateCountSize, updateCounts.length);
+    updateCountSize = required;
+  }
+
+  /**
+   * Releases the parameter objects once the batch has been executed and they are no longer needed.
+   *
+   * @since 3.5.3
+   */
+  public void clearParameterObjects() {
+    this.parameterObjects.clear();
+  }
+
 }
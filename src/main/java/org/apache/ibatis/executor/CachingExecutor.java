@@ -22,6 +22,7 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.listener.ExecutionListener;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -102,6 +103,11 @@ public class CachingExecutor implements Executor {
         if (list == null) {
           list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
           tcm.putObject(cache, key, list); // issue #578 and #116
+        } else {
+          ExecutionListener listener = ms.getConfiguration().getExecutionListener();
+          if (listener != null) {
+            listener.cacheHit(ms, parameterObject, true);
+          }
         }
         return list;
       }
@@ -0,0 +1,234 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Rows of a single-row <code>INSERT ... VALUES (...)</code> collected by the {@link BatchExecutor} to be executed as
+ * multi-row <code>INSERT ... VALUES (...), (...)</code> statements.
+ * <p>
+ * Parameters are bound when a row is added, through the statement's {@link ParameterHandler}, on a recording
+ * statement, so they can be replayed at the right parameter index of the multi-row statement. The single-row statement
+ * itself is never prepared.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+class MultiRowInsert {
+
+  private static final String VALUES = "values";
+
+  private final String prefix;
+  private final String valuesGroup;
+  private final int parametersPerRow;
+  private final int rowsPerStatement;
+  private final List<List<ParameterCall>> rows = new ArrayList<>();
+  private final ParameterRecorder recorder = new ParameterRecorder();
+  private final PreparedStatement recordingStatement = (PreparedStatement) Proxy.newProxyInstance(
+      PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, recorder);
+
+  private MultiRowInsert(String prefix, String valuesGroup, int parametersPerRow, int parameterLimit) {
+    this.prefix = prefix;
+    this.valuesGroup = valuesGroup;
+    this.parametersPerRow = parametersPerRow;
+    this.rowsPerStatement = parametersPerRow == 0 ? parameterLimit : Math.max(1, parameterLimit / parametersPerRow);
+  }
+
+  /**
+   * Parses a single-row insert.
+   *
+   * @param sql the SQL of the insert
+   * @param parameterCount the number of parameters of one row
+   * @param parameterLimit the maximum number of parameters of a multi-row statement
+   * @return the multi-row insert, or <code>null</code> if the statement cannot be rewritten
+   */
+  static MultiRowInsert parse(String sql, int parameterCount, int parameterLimit) {
+    int valuesStart = -1;
+    int groupStart = -1;
+    int groupEnd = -1;
+    int depth = 0;
+    char quote = 0;
+    int placeholders = 0;
+    for (int i = 0, n = sql.length(); i < n; i++) {
+      char c = sql.charAt(i);
+      if (groupEnd >= 0) {
+        if (!Character.isWhitespace(c) && c != ';') {
+          // anything after the values group (another row, ON DUPLICATE KEY, RETURNING...)
+          return null;
+        }
+      } else if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '?') {
+        if (groupStart < 0) {
+          return null;
+        }
+        placeholders++;
+      } else if (c == '(') {
+        if (depth == 0 && valuesStart >= 0 && groupStart < 0) {
+          groupStart = i;
+        }
+        depth++;
+      } else if (c == ')') {
+        depth--;
+        if (depth == 0 && groupStart >= 0) {
+          groupEnd = i;
+        }
+      } else if (depth == 0 && valuesStart < 0 && isKeyword(sql, i, VALUES)) {
+        valuesStart = i;
+        i += VALUES.length() - 1;
+      } else if (depth == 0 && valuesStart >= 0 && groupStart < 0 && !Character.isWhitespace(c)) {
+        return null;
+      }
+    }
+    if (groupEnd < 0 || placeholders != parameterCount || parameterLimit <= 0) {
+      return null;
+    }
+    return new MultiRowInsert(sql.substring(0, groupStart), sql.substring(groupStart, groupEnd + 1), parameterCount,
+        parameterLimit);
+  }
+
+  private static boolean isKeyword(String sql, int index, String keyword) {
+    int end = index + keyword.length();
+    return sql.regionMatches(true, index, keyword, 0, keyword.length())
+        && (index == 0 || !Character.isJavaIdentifierPart(sql.charAt(index - 1)))
+        && (end == sql.length() || !Character.isJavaIdentifierPart(sql.charAt(end)));
+  }
+
+  /**
+   * Binds the parameters of a new row.
+   *
+   * @param parameterHandler the parameter handler of the row
+   * @param connection returned to type handlers asking for the connection of the statement, e.g. to create arrays
+   * @throws SQLException if the parameters cannot be set
+   */
+  void addRow(ParameterHandler parameterHandler, Connection connection) throws SQLException {
+    List<ParameterCall> calls = new ArrayList<>(parametersPerRow);
+    recorder.calls = calls;
+    recorder.connection = connection;
+    try {
+      parameterHandler.setParameters(recordingStatement);
+    } finally {
+      recorder.calls = null;
+      recorder.connection = null;
+    }
+    rows.add(calls);
+  }
+
+  int size() {
+    return rows.size();
+  }
+
+  int getRowsPerStatement() {
+    return rowsPerStatement;
+  }
+
+  String getSql(int rowCount) {
+    StringBuilder sql = new StringBuilder(prefix.length() + (valuesGroup.length() + 2) * rowCount);
+    sql.append(prefix);
+    for (int i = 0; i < rowCount; i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(valuesGroup);
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Sets the parameters of a row on a multi-row statement.
+   *
+   * @param statement the multi-row statement
+   * @param row the index of the row to bind
+   * @param position the position of the row in the statement
+   * @throws SQLException if a parameter cannot be set
+   */
+  void bind(PreparedStatement statement, int row, int position) throws SQLException {
+    int offset = position * parametersPerRow;
+    for (ParameterCall call : rows.get(row)) {
+      call.replay(statement, offset);
+    }
+  }
+
+  /**
+   * Records the parameters set on the recording statement for the row being added.
+   */
+  private static class ParameterRecorder implements InvocationHandler {
+    private List<ParameterCall> calls;
+    private Connection connection;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (Object.class.equals(method.getDeclaringClass())) {
+        try {
+          return method.invoke(this, args);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      }
+      if (method.getName().startsWith("set") && args != null && args.length > 1
+          && method.getParameterTypes()[0] == int.class) {
+        calls.add(new ParameterCall(method, args));
+        return null;
+      }
+      if ("getConnection".equals(method.getName())) {
+        return connection;
+      }
+      throw new SQLFeatureNotSupportedException("Method " + method.getName()
+          + " is not supported while binding the parameters of a multi-row insert.");
+    }
+  }
+
+  private static class ParameterCall {
+    private final Method method;
+    private final Object[] args;
+
+    ParameterCall(Method method, Object[] args) {
+      this.method = method;
+      this.args = args;
+    }
+
+    void replay(PreparedStatement statement, int offset) throws SQLException {
+      Object[] shiftedArgs = args.clone();
+      shiftedArgs[0] = (Integer) args[0] + offset;
+      try {
+        method.invoke(statement, shiftedArgs);
+      } catch (Exception e) {
+        Throwable cause = ExceptionUtil.unwrapThrowable(e);
+        if (cause instanceof SQLException) {
+          throw (SQLException) cause;
+        }
+        throw new ExecutorException("Error setting parameter of multi-row insert.  Cause: " + cause, cause);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.listener;
+
+import java.sql.Connection;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Receives the lifecycle events of the statements executed by the executors, e.g. to trace them.
+ * <p>
+ * Listeners are called directly by the executor, on the thread executing the statement, and must be fast and thread
+ * safe. Unlike an {@link org.apache.ibatis.plugin.Interceptor}, a listener cannot change the execution; an exception
+ * thrown by a listener fails the statement. When no listener is registered, executions only pay a null check.
+ * </p>
+ *
+ * @since 3.5.3
+ * @see org.apache.ibatis.session.Configuration#addExecutionListener(ExecutionListener)
+ */
+public interface ExecutionListener {
+
+  /**
+   * Called before a statement is executed against the database. Cache hits are not executed. The updates queued by a
+   * batch executor are executed when they are flushed, once per JDBC batch, with the list of the parameter objects of
+   * the batch as parameter.
+   *
+   * @param ms the statement
+   * @param parameter the parameter object
+   */
+  default void beforeExecute(MappedStatement ms, Object parameter) {
+    // NOP
+  }
+
+  /**
+   * Called after a statement has been executed, and its results mapped, or after it failed.
+   *
+   * @param ms the statement
+   * @param parameter the parameter object
+   * @param failure the exception thrown by the execution, null if it succeeded
+   */
+  default void afterExecute(MappedStatement ms, Object parameter, Throwable failure) {
+    // NOP
+  }
+
+  /**
+   * Called for each result object of a query, once it is mapped and before it is handed to the result handler.
+   *
+   * @param ms the statement
+   * @param row the result object
+   */
+  default void rowMapped(MappedStatement ms, Object row) {
+    // NOP
+  }
+
+  /**
+   * Called when the result of a query is found in a cache instead of being executed.
+   *
+   * @param ms the statement
+   * @param parameter the parameter object
+   * @param secondLevel true for the cache of the namespace, false for the local cache of the session
+   */
+  default void cacheHit(MappedStatement ms, Object parameter, boolean secondLevel) {
+    // NOP
+  }
+
+  /**
+   * Called when an executor obtains the connection of its transaction to prepare a statement.
+   *
+   * @param connection the connection
+   */
+  default void connectionAcquired(Connection connection) {
+    // NOP
+  }
+
+}
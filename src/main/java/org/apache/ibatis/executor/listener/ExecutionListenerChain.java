@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.listener;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * The execution listeners of a configuration.
+ *
+ * @since 3.5.3
+ */
+public class ExecutionListenerChain implements ExecutionListener {
+
+  private volatile ExecutionListener[] listeners = new ExecutionListener[0];
+
+  public void addListener(ExecutionListener listener) {
+    List<ExecutionListener> list = new ArrayList<>(getListeners());
+    list.add(listener);
+    listeners = list.toArray(new ExecutionListener[0]);
+  }
+
+  public List<ExecutionListener> getListeners() {
+    return Collections.unmodifiableList(Arrays.asList(listeners));
+  }
+
+  /**
+   * @return the listener to call, null if there is none
+   */
+  public ExecutionListener getListener() {
+    ExecutionListener[] current = listeners;
+    if (current.length == 0) {
+      return null;
+    }
+    return current.length == 1 ? current[0] : this;
+  }
+
+  @Override
+  public void beforeExecute(MappedStatement ms, Object parameter) {
+    for (ExecutionListener listener : listeners) {
+      listener.beforeExecute(ms, parameter);
+    }
+  }
+
+  @Override
+  public void afterExecute(MappedStatement ms, Object parameter, Throwable failure) {
+    for (ExecutionListener listener : listeners) {
+      listener.afterExecute(ms, parameter, failure);
+    }
+  }
+
+  @Override
+  public void rowMapped(MappedStatement ms, Object row) {
+    for (ExecutionListener listener : listeners) {
+      listener.rowMapped(ms, row);
+    }
+  }
+
+  @Override
+  public void cacheHit(MappedStatement ms, Object parameter, boolean secondLevel) {
+    for (ExecutionListener listener : listeners) {
+      listener.cacheHit(ms, parameter, secondLevel);
+    }
+  }
+
+  @Override
+  public void connectionAcquired(Connection connection) {
+    for (ExecutionListener listener : listeners) {
+      listener.connectionAcquired(connection);
+    }
+  }
+
+}
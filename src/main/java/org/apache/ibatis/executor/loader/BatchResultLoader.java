@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Result loader of a lazy property that is loaded for the sibling objects of the same result at once.
+ *
+ * @since 3.5.3
+ * @see NestedSelectBatch
+ */
+class BatchResultLoader extends ResultLoader {
+
+  private final NestedSelectBatch batch;
+
+  BatchResultLoader(NestedSelectBatch batch, Configuration config, Executor executor, MappedStatement mappedStatement,
+      Object parameterObject, Class<?> targetType, CacheKey cacheKey, BoundSql boundSql) {
+    super(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql);
+    this.batch = batch;
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    batch.loadLazy(this);
+    return resultObject;
+  }
+
+}
@@ -0,0 +1,343 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * Loads the nested select property of the objects of one result with the <code>batchSelect</code> statement of its
+ * mapping.
+ * <p>
+ * Eagerly loaded objects are loaded all at once when the result has been handled. Lazily loaded objects are loaded
+ * together with their siblings: the first access to the property loads it for up to
+ * <code>nestedSelectBatchSize</code> objects that have not been loaded yet.
+ * </p>
+ * <p>
+ * When <code>parallelNestedSelects</code> is enabled, eager mappings without <code>batchSelect</code> are deferred
+ * too, running their <code>select</code> once per distinct key, and the batches of different mappings are loaded
+ * concurrently if the session is in auto-commit mode. The concurrent batches run in auto-commit transactions of their
+ * own: they only see committed data and do not use the local cache of the session.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public class NestedSelectBatch {
+
+  private static final Log log = LogFactory.getLog(NestedSelectBatch.class);
+
+  private static volatile boolean autoCommitWarningLogged;
+
+  // set on the threads loading a batch concurrently, whose own nested selects are loaded sequentially
+  private static final ThreadLocal<Boolean> CONCURRENT_FETCH = new ThreadLocal<>();
+
+  private final Configuration configuration;
+  private final ResultMapping propertyMapping;
+  private final ResultExtractor resultExtractor;
+  private final List<PendingLoad> pendingLoads = new ArrayList<>();
+  private final List<BatchResultLoader> lazyLoaders = new ArrayList<>();
+  private final ReentrantLock lazyLock = new ReentrantLock();
+
+  public NestedSelectBatch(Configuration configuration, ResultMapping propertyMapping) {
+    this.configuration = configuration;
+    this.propertyMapping = propertyMapping;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+  }
+
+  /**
+   * Adds an object whose property is loaded by {@link #loadPending(Executor)}.
+   *
+   * @param metaResultObject the object to set the property on
+   * @param key the value of the column of the mapping
+   */
+  public void add(MetaObject metaResultObject, Object key) {
+    pendingLoads.add(new PendingLoad(metaResultObject, key));
+  }
+
+  /**
+   * Creates the result loader of an object whose property is loaded lazily.
+   *
+   * @return a result loader that loads the property of its siblings too
+   */
+  public ResultLoader addLazy(Executor executor, MappedStatement nestedQuery, Object key, CacheKey cacheKey,
+      BoundSql boundSql) {
+    BatchResultLoader resultLoader = new BatchResultLoader(this, configuration, executor, nestedQuery, key,
+        propertyMapping.getJavaType(), cacheKey, boundSql);
+    lazyLock.lock();
+    try {
+      lazyLoaders.add(resultLoader);
+    } finally {
+      lazyLock.unlock();
+    }
+    return resultLoader;
+  }
+
+  /**
+   * Loads the property of all the objects added with {@link #add(MetaObject, Object)}.
+   *
+   * @param executor the executor running the nested statements
+   */
+  public void loadPending(Executor executor) throws SQLException {
+    if (!pendingLoads.isEmpty()) {
+      assignPending(fetchPending(executor));
+    }
+  }
+
+  /**
+   * Loads the pending batches, concurrently when <code>parallelNestedSelects</code> is enabled and the session is in
+   * auto-commit mode. The first batch runs on the caller thread with its executor, the others on the
+   * <code>nestedSelectExecutor</code> with executors of their own, and the properties are set on the caller thread.
+   * All the batches are complete when this method returns, even if one of them failed.
+   *
+   * @param configuration the configuration
+   * @param executor the executor of the caller
+   * @param batches the batches to load
+   */
+  public static void loadPending(Configuration configuration, Executor executor, Collection<NestedSelectBatch> batches)
+      throws SQLException {
+    final List<NestedSelectBatch> pendingBatches = new ArrayList<>(batches.size());
+    for (NestedSelectBatch batch : batches) {
+      if (!batch.pendingLoads.isEmpty()) {
+        pendingBatches.add(batch);
+      }
+    }
+    if (pendingBatches.size() < 2 || !canLoadConcurrently(configuration, executor)) {
+      for (NestedSelectBatch batch : pendingBatches) {
+        batch.loadPending(executor);
+      }
+      return;
+    }
+    final ExecutorService threadExecutor = configuration.getNestedSelectExecutor();
+    final List<CompletableFuture<Map<Object, List<Object>>>> futures = new ArrayList<>(pendingBatches.size() - 1);
+    for (NestedSelectBatch batch : pendingBatches.subList(1, pendingBatches.size())) {
+      futures.add(CompletableFuture.supplyAsync(batch::fetchPendingOnNewExecutor, threadExecutor));
+    }
+    Throwable failure = null;
+    try {
+      pendingBatches.get(0).loadPending(executor);
+    } catch (SQLException | RuntimeException e) {
+      failure = e;
+    }
+    // wait for every batch so no connection is still in use when this method returns
+    final List<Map<Object, List<Object>>> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<Map<Object, List<Object>>> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure instanceof SQLException) {
+      throw (SQLException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure != null) {
+      throw new ExecutorException("Error loading nested select.  Cause: " + failure, failure);
+    }
+    for (int i = 0; i < results.size(); i++) {
+      pendingBatches.get(i + 1).assignPending(results.get(i));
+    }
+  }
+
+  private static boolean canLoadConcurrently(Configuration configuration, Executor executor) throws SQLException {
+    if (!configuration.isParallelNestedSelects() || CONCURRENT_FETCH.get() != null) {
+      return false;
+    }
+    // the other connections would not see the uncommitted changes of the session
+    if (executor.getTransaction().getConnection().getAutoCommit()) {
+      return true;
+    }
+    if (!autoCommitWarningLogged) {
+      autoCommitWarningLogged = true;
+      log.warn("parallelNestedSelects is enabled but the session is not in auto-commit mode, its nested selects are "
+          + "executed one after the other. Open the session with autoCommit set to true to execute them concurrently.");
+    }
+    return false;
+  }
+
+  private Map<Object, List<Object>> fetchPendingOnNewExecutor() {
+    final Environment environment = configuration.getEnvironment();
+    final Transaction tx = environment.getTransactionFactory().newTransaction(environment.getDataSource(), null, true);
+    final Executor executor = configuration.newExecutor(tx, ExecutorType.SIMPLE);
+    CONCURRENT_FETCH.set(Boolean.TRUE);
+    try {
+      return fetchPending(executor);
+    } catch (SQLException e) {
+      throw new CompletionException(e);
+    } finally {
+      CONCURRENT_FETCH.remove();
+      executor.close(false);
+    }
+  }
+
+  private Map<Object, List<Object>> fetchPending(Executor executor) throws SQLException {
+    final List<Object> keys = new ArrayList<>(pendingLoads.size());
+    for (PendingLoad load : pendingLoads) {
+      keys.add(load.key);
+    }
+    return query(executor, keys);
+  }
+
+  private void assignPending(Map<Object, List<Object>> valuesByKey) {
+    final String property = propertyMapping.getProperty();
+    for (PendingLoad load : pendingLoads) {
+      final Object value = extract(valuesByKey, load.key);
+      if (value != null || (configuration.isCallSettersOnNulls() && !load.metaObject.getSetterType(property).isPrimitive())) {
+        load.metaObject.setValue(property, value);
+      }
+    }
+    pendingLoads.clear();
+  }
+
+  void loadLazy(BatchResultLoader trigger) throws SQLException {
+    lazyLock.lock();
+    try {
+      if (trigger.loaded) {
+        return;
+      }
+      final Integer batchSize = configuration.getNestedSelectBatchSize();
+      final List<BatchResultLoader> window = new ArrayList<>();
+      window.add(trigger);
+      lazyLoaders.remove(trigger);
+      for (Iterator<BatchResultLoader> iterator = lazyLoaders.iterator(); iterator.hasNext()
+          && (batchSize == null || batchSize <= 0 || window.size() < batchSize);) {
+        window.add(iterator.next());
+        iterator.remove();
+      }
+      final List<Object> keys = new ArrayList<>(window.size());
+      for (BatchResultLoader resultLoader : window) {
+        keys.add(resultLoader.parameterObject);
+      }
+      final Map<Object, List<Object>> valuesByKey;
+      final Executor executor = trigger.openExecutor();
+      try {
+        valuesByKey = query(executor, keys);
+      } finally {
+        trigger.closeExecutor(executor);
+      }
+      for (BatchResultLoader resultLoader : window) {
+        resultLoader.resultObject = extract(valuesByKey, resultLoader.parameterObject);
+        resultLoader.loaded = true;
+      }
+    } finally {
+      lazyLock.unlock();
+    }
+  }
+
+  private Object extract(Map<Object, List<Object>> valuesByKey, Object key) {
+    final List<Object> values = valuesByKey.get(normalizeKey(key));
+    // each object gets its own list
+    return resultExtractor.extractObjectFromList(values == null ? new ArrayList<>() : new ArrayList<>(values),
+        propertyMapping.getJavaType());
+  }
+
+  private Map<Object, List<Object>> query(Executor executor, List<Object> keys) throws SQLException {
+    final List<Object> uniqueKeys = new ArrayList<>();
+    final Set<Object> normalizedKeys = new HashSet<>();
+    for (Object key : keys) {
+      if (normalizedKeys.add(normalizeKey(key))) {
+        uniqueKeys.add(key);
+      }
+    }
+    if (propertyMapping.getBatchNestedQueryId() == null) {
+      return queryEach(executor, uniqueKeys);
+    }
+    final MappedStatement batchQuery = configuration.getMappedStatement(propertyMapping.getBatchNestedQueryId());
+    final Integer batchSize = configuration.getNestedSelectBatchSize();
+    final int step = batchSize == null || batchSize <= 0 ? uniqueKeys.size() : batchSize;
+    final Map<Object, List<Object>> valuesByKey = new HashMap<>();
+    for (int i = 0; i < uniqueKeys.size(); i += step) {
+      final List<Object> batchKeys = new ArrayList<>(uniqueKeys.subList(i, Math.min(i + step, uniqueKeys.size())));
+      final ParamMap<Object> parameterObject = new ParamMap<>();
+      parameterObject.put("collection", batchKeys);
+      parameterObject.put("list", batchKeys);
+      final List<Object> values = executor.query(batchQuery, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      for (Object value : values) {
+        final Object key = configuration.newMetaObject(value).getValue(propertyMapping.getBatchKeyProperty());
+        valuesByKey.computeIfAbsent(normalizeKey(key), k -> new ArrayList<>()).add(value);
+      }
+    }
+    return valuesByKey;
+  }
+
+  private Map<Object, List<Object>> queryEach(Executor executor, List<Object> keys) throws SQLException {
+    final MappedStatement nestedQuery = configuration.getMappedStatement(propertyMapping.getNestedQueryId());
+    final Map<Object, List<Object>> valuesByKey = new HashMap<>();
+    for (Object key : keys) {
+      final List<Object> values = executor.query(nestedQuery, key, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      valuesByKey.put(normalizeKey(key), values);
+    }
+    return valuesByKey;
+  }
+
+  private static Object normalizeKey(Object key) {
+    // the column of the parent and the property of the loaded object may not have the same numeric type
+    if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+      return ((Number) key).longValue();
+    } else if (key instanceof BigInteger || key instanceof BigDecimal) {
+      BigDecimal decimal = key instanceof BigInteger ? new BigDecimal((BigInteger) key) : (BigDecimal) key;
+      try {
+        return decimal.longValueExact();
+      } catch (ArithmeticException e) {
+        return decimal.stripTrailingZeros();
+      }
+    }
+    return key;
+  }
+
+  private static class PendingLoad {
+    private final MetaObject metaObject;
+    private final Object key;
+
+    PendingLoad(MetaObject metaObject, Object key) {
+      this.metaObject = metaObject;
+      this.key = key;
+    }
+  }
+
+}
@@ -73,16 +73,31 @@ public class ResultLoader {
   }
 
   private <E> List<E> selectList() throws SQLException {
-    Executor localExecutor = executor;
-    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
-      localExecutor = newExecutor();
-    }
+    Executor localExecutor = openExecutor();
     try {
       return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
     } finally {
-      if (localExecutor != executor) {
-        localExecutor.close(false);
-      }
+      closeExecutor(localExecutor);
+    }
+  }
+
+  /**
+   * @return the executor of the loader, or a new one if it cannot be used from the current thread
+   * @since 3.5.3
+   */
+  protected Executor openExecutor() {
+    if (Thread.currentThread().getId() != this.creatorThreadId || executor.isClosed()) {
+      return newExecutor();
+    }
+    return executor;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  protected void closeExecutor(Executor localExecutor) {
+    if (localExecutor != executor) {
+      localExecutor.close(false);
     }
   }
 
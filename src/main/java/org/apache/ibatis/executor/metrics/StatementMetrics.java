@@ -0,0 +1,179 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a mapped statement, recorded when the <code>statementMetricsEnabled</code> setting is on.
+ * <p>
+ * The latency covers the whole execution of the statement by the executor. It is split into the time spent preparing
+ * the statement and binding its parameters, the time spent by the driver executing it, and the time spent mapping its
+ * results. Rows are the rows returned by queries and the rows affected by updates; cursors do not report rows. The
+ * updates of a batch executor are recorded when they are flushed, as one execution per JDBC batch.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public class StatementMetrics implements StatementMetricsMXBean {
+
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final double MICROS_PER_MILLI = TimeUnit.MILLISECONDS.toMicros(1);
+
+  private final String statementId;
+  private final LongAdder executions = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder slowExecutions = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder prepareNanos = new LongAdder();
+  private final LongAdder executeNanos = new LongAdder();
+  private final LongAdder mappingNanos = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  public StatementMetrics(String statementId) {
+    this.statementId = statementId;
+  }
+
+  /**
+   * Records a successful execution.
+   *
+   * @param elapsedNanos the duration of the execution
+   * @param rowCount the number of rows returned or affected, negative if unknown
+   * @param slow whether the execution exceeded the slow statement threshold
+   */
+  public void recordExecution(long elapsedNanos, int rowCount, boolean slow) {
+    executions.increment();
+    latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    if (rowCount > 0) {
+      rows.add(rowCount);
+    }
+    if (slow) {
+      slowExecutions.increment();
+    }
+  }
+
+  /**
+   * Records a failed execution.
+   *
+   * @param elapsedNanos the duration of the execution
+   */
+  public void recordError(long elapsedNanos) {
+    executions.increment();
+    errors.increment();
+    latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+  }
+
+  public void addPrepareTime(long nanos) {
+    prepareNanos.add(nanos);
+  }
+
+  public void addExecuteTime(long nanos) {
+    executeNanos.add(nanos);
+  }
+
+  public void addMappingTime(long nanos) {
+    mappingNanos.add(nanos);
+  }
+
+  public LatencyHistogram getLatencyHistogram() {
+    return latency;
+  }
+
+  @Override
+  public String getStatementId() {
+    return statementId;
+  }
+
+  @Override
+  public long getExecutionCount() {
+    return executions.sum();
+  }
+
+  @Override
+  public long getErrorCount() {
+    return errors.sum();
+  }
+
+  @Override
+  public long getSlowCount() {
+    return slowExecutions.sum();
+  }
+
+  @Override
+  public long getRowCount() {
+    return rows.sum();
+  }
+
+  @Override
+  public double getPrepareTimeMillis() {
+    return prepareNanos.sum() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getExecuteTimeMillis() {
+    return executeNanos.sum() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getMappingTimeMillis() {
+    return mappingNanos.sum() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getMeanLatencyMillis() {
+    return latency.getMean() / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public double getMedianLatencyMillis() {
+    return getLatencyPercentileMillis(50.0);
+  }
+
+  @Override
+  public double get99thPercentileLatencyMillis() {
+    return getLatencyPercentileMillis(99.0);
+  }
+
+  @Override
+  public double getMaxLatencyMillis() {
+    return latency.getMax() / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public double getLatencyPercentileMillis(double percentile) {
+    return latency.getPercentile(percentile) / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public void reset() {
+    executions.reset();
+    errors.reset();
+    slowExecutions.reset();
+    rows.reset();
+    prepareNanos.reset();
+    executeNanos.reset();
+    mappingNanos.reset();
+    latency.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "StatementMetrics[" + statementId + ", executions=" + getExecutionCount() + ", errors=" + getErrorCount()
+        + ", rows=" + getRowCount() + ", meanLatencyMillis=" + getMeanLatencyMillis() + "]";
+  }
+
+}
@@ -0,0 +1,53 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * Management interface of the {@link StatementMetrics} of a mapped statement. Durations are in milliseconds.
+ *
+ * @since 3.5.3
+ */
+public interface StatementMetricsMXBean {
+
+  String getStatementId();
+
+  long getExecutionCount();
+
+  long getErrorCount();
+
+  long getSlowCount();
+
+  long getRowCount();
+
+  double getPrepareTimeMillis();
+
+  double getExecuteTimeMillis();
+
+  double getMappingTimeMillis();
+
+  double getMeanLatencyMillis();
+
+  double getMedianLatencyMillis();
+
+  double get99thPercentileLatencyMillis();
+
+  double getMaxLatencyMillis();
+
+  double getLatencyPercentileMillis(double percentile);
+
+  void reset();
+
+}
@@ -0,0 +1,152 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * The {@link StatementMetrics} of the mapped statements of a configuration, created on the first execution of each
+ * statement.
+ * <p>
+ * Once {@link #registerMBeans(MBeanServer, String)} is called, the metrics of every statement, including the ones
+ * executed later, are registered as <code>org.apache.ibatis:type=StatementMetrics,name=&lt;name&gt;,statement=&lt;id&gt;</code>.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public class StatementMetricsRegistry {
+
+  private static final String DOMAIN = "org.apache.ibatis";
+
+  private final ConcurrentMap<String, StatementMetrics> metrics = new ConcurrentHashMap<>();
+  private final ReentrantLock jmxLock = new ReentrantLock();
+  private volatile MBeanServer mbeanServer;
+  private String name;
+
+  /**
+   * @param statementId the id of a mapped statement
+   * @return the metrics of the statement, created if needed
+   */
+  public StatementMetrics getMetrics(String statementId) {
+    StatementMetrics statementMetrics = metrics.get(statementId);
+    if (statementMetrics == null) {
+      statementMetrics = metrics.computeIfAbsent(statementId, StatementMetrics::new);
+      if (mbeanServer != null) {
+        jmxLock.lock();
+        try {
+          register(statementMetrics);
+        } finally {
+          jmxLock.unlock();
+        }
+      }
+    }
+    return statementMetrics;
+  }
+
+  /**
+   * @return the metrics of the statements executed so far, by statement id
+   */
+  public Map<String, StatementMetrics> getAllMetrics() {
+    return Collections.unmodifiableMap(metrics);
+  }
+
+  public void reset() {
+    metrics.values().forEach(StatementMetrics::reset);
+  }
+
+  /**
+   * Registers the metrics of the statements in a MBean server.
+   *
+   * @param server the MBean server
+   * @param name the name that distinguishes these metrics from the ones of other configurations
+   */
+  public void registerMBeans(MBeanServer server, String name) {
+    jmxLock.lock();
+    try {
+      unregisterMBeans();
+      this.name = name;
+      this.mbeanServer = server;
+      for (StatementMetrics statementMetrics : metrics.values()) {
+        register(statementMetrics);
+      }
+    } finally {
+      jmxLock.unlock();
+    }
+  }
+
+  public void unregisterMBeans() {
+    jmxLock.lock();
+    try {
+      MBeanServer server = mbeanServer;
+      if (server == null) {
+        return;
+      }
+      mbeanServer = null;
+      for (String statementId : metrics.keySet()) {
+        try {
+          server.unregisterMBean(objectName(statementId));
+        } catch (InstanceNotFoundException e) {
+          // not registered yet
+        } catch (JMException e) {
+          throw new ExecutorException("Error unregistering the metrics of statement " + statementId + ".  Cause: " + e, e);
+        }
+      }
+    } finally {
+      jmxLock.unlock();
+    }
+  }
+
+  /**
+   * @param statementId the id of a mapped statement
+   * @return the name of the MBean of the statement metrics
+   */
+  public ObjectName objectName(String statementId) {
+    try {
+      return new ObjectName(DOMAIN + ":type=StatementMetrics,name=" + ObjectName.quote(name) + ",statement="
+          + ObjectName.quote(statementId));
+    } catch (JMException e) {
+      throw new ExecutorException("Invalid metrics name for statement " + statementId + ".  Cause: " + e, e);
+    }
+  }
+
+  private void register(StatementMetrics statementMetrics) {
+    MBeanServer server = mbeanServer;
+    if (server == null) {
+      return;
+    }
+    try {
+      server.registerMBean(statementMetrics, objectName(statementMetrics.getStatementId()));
+    } catch (InstanceAlreadyExistsException e) {
+      // registered by registerMBeans
+    } catch (JMException e) {
+      throw new ExecutorException("Error registering the metrics of statement " + statementMetrics.getStatementId()
+          + ".  Cause: " + e, e);
+    }
+  }
+
+}
@@ -0,0 +1,444 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * The rows of a query stored column by column in arrays, instead of one object per row.
+ * <p>
+ * A select whose result type is <code>ColumnarResult</code>, e.g. a mapper method returning it, gets a single
+ * <code>ColumnarResult</code> holding all the rows of the result set. Columns are read by index with the JDBC getter
+ * matching their type:
+ * </p>
+ * <ul>
+ * <li><code>TINYINT</code>, <code>SMALLINT</code>, <code>INTEGER</code> and <code>BIGINT</code> columns are stored in a
+ * <code>long[]</code>.</li>
+ * <li><code>TIMESTAMP</code> columns are stored in a <code>long[]</code> of epoch milliseconds.</li>
+ * <li><code>REAL</code>, <code>FLOAT</code> and <code>DOUBLE</code> columns are stored in a <code>double[]</code>.</li>
+ * <li><code>DECIMAL</code> and <code>NUMERIC</code> columns are stored in an <code>Object[]</code> of
+ * <code>BigDecimal</code>, a <code>double</code> cannot hold all their values exactly.</li>
+ * <li>Character columns are dictionary encoded: an <code>int[]</code> of codes indexing the distinct values.</li>
+ * <li>Other columns are stored in an <code>Object[]</code>.</li>
+ * </ul>
+ * <p>
+ * Primitive columns store <code>0</code> for SQL NULL, use {@link #isNull(String, int)} to tell them apart. Arrays
+ * returned by the getters are the storage of the columns, not copies.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public class ColumnarResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<String> columnNames;
+  private final Map<String, Column> columns;
+  private final int rowCount;
+
+  private ColumnarResult(List<String> columnNames, Map<String, Column> columns, int rowCount) {
+    this.columnNames = columnNames;
+    this.columns = columns;
+    this.rowCount = rowCount;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  /**
+   * Returns the values of an integer or a timestamp column.
+   *
+   * @param columnName the label of the column, case insensitive
+   * @return the values, <code>0</code> for SQL NULL
+   */
+  public long[] getLongs(String columnName) {
+    return getColumn(columnName, LongColumn.class).values;
+  }
+
+  /**
+   * Returns the values of a floating point column.
+   *
+   * @param columnName the label of the column, case insensitive
+   * @return the values, <code>0</code> for SQL NULL
+   */
+  public double[] getDoubles(String columnName) {
+    return getColumn(columnName, DoubleColumn.class).values;
+  }
+
+  /**
+   * Returns the codes of a character column, indexes of {@link #getDictionary(String)}.
+   *
+   * @param columnName the label of the column, case insensitive
+   * @return the codes, <code>-1</code> for SQL NULL
+   */
+  public int[] getCodes(String columnName) {
+    return getColumn(columnName, StringColumn.class).codes;
+  }
+
+  /**
+   * Returns the distinct values of a character column, in the order they were read.
+   *
+   * @param columnName the label of the column, case insensitive
+   * @return the distinct values
+   */
+  public List<String> getDictionary(String columnName) {
+    return Collections.unmodifiableList(getColumn(columnName, StringColumn.class).dictionary);
+  }
+
+  /**
+   * Decodes the values of a character column.
+   *
+   * @param columnName the label of the column, case insensitive
+   * @return a new array of the values
+   */
+  public String[] getStrings(String columnName) {
+    StringColumn column = getColumn(columnName, StringColumn.class);
+    String[] values = new String[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      int code = column.codes[i];
+      values[i] = code < 0 ? null : column.dictionary.get(code);
+    }
+    return values;
+  }
+
+  /**
+   * Returns the values of a column that is not stored in a primitive array.
+   *
+   * @param columnName the label of the column, case insensitive
+   * @return the values
+   */
+  public Object[] getObjects(String columnName) {
+    return getColumn(columnName, ObjectColumn.class).values;
+  }
+
+  /**
+   * Returns a value of any column, boxed.
+   *
+   * @param columnName the label of the column, case insensitive
+   * @param row the index of the row
+   * @return the value, <code>null</code> for SQL NULL
+   */
+  public Object getValue(String columnName, int row) {
+    checkRow(row);
+    Column column = getColumn(columnName, Column.class);
+    return column.isNull(row) ? null : column.getValue(row);
+  }
+
+  public boolean isNull(String columnName, int row) {
+    checkRow(row);
+    return getColumn(columnName, Column.class).isNull(row);
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row " + row + " is out of bounds, the result has " + rowCount + " rows.");
+    }
+  }
+
+  private <C extends Column> C getColumn(String columnName, Class<C> columnType) {
+    Column column = columns.get(columnName.toUpperCase(Locale.ENGLISH));
+    if (column == null) {
+      throw new IllegalArgumentException("The result does not contain a column '" + columnName + "'. Available columns are: " + columnNames);
+    }
+    if (!columnType.isInstance(column)) {
+      throw new IllegalArgumentException("The column '" + columnName + "' is not stored as " + columnType.getSimpleName()
+          + " but as " + column.getClass().getSimpleName() + ".");
+    }
+    return columnType.cast(column);
+  }
+
+  /**
+   * Reads the rows of a result set into growable column arrays.
+   */
+  public static class Builder {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<String> columnNames;
+    private final Column[] columns;
+    private int rowCount;
+
+    public Builder(List<String> columnNames, List<JdbcType> jdbcTypes) {
+      this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+      this.columns = new Column[columnNames.size()];
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = createColumn(jdbcTypes.get(i));
+      }
+    }
+
+    private static Column createColumn(JdbcType jdbcType) {
+      if (jdbcType == null) {
+        return new ObjectColumn();
+      }
+      switch (jdbcType) {
+        case TINYINT:
+        case SMALLINT:
+        case INTEGER:
+        case BIGINT:
+          return new LongColumn();
+        case TIMESTAMP:
+          return new TimestampColumn();
+        case REAL:
+        case FLOAT:
+        case DOUBLE:
+          return new DoubleColumn();
+        case DECIMAL:
+        case NUMERIC:
+          return new DecimalColumn();
+        case CHAR:
+        case VARCHAR:
+        case LONGVARCHAR:
+        case NCHAR:
+        case NVARCHAR:
+          return new StringColumn();
+        default:
+          return new ObjectColumn();
+      }
+    }
+
+    /**
+     * Reads the current row of the result set.
+     *
+     * @param rs the result set, positioned on a row
+     * @throws SQLException if a column cannot be read
+     */
+    public void addRow(ResultSet rs) throws SQLException {
+      int row = rowCount;
+      for (int i = 0; i < columns.length; i++) {
+        columns[i].read(rs, i + 1, row);
+      }
+      rowCount++;
+    }
+
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    public ColumnarResult build() {
+      Map<String, Column> columnMap = new HashMap<>();
+      for (int i = 0; i < columns.length; i++) {
+        columns[i].trim(rowCount);
+        // the first column wins like ResultSet#findColumn
+        columnMap.putIfAbsent(columnNames.get(i).toUpperCase(Locale.ENGLISH), columns[i]);
+      }
+      return new ColumnarResult(columnNames, columnMap, rowCount);
+    }
+
+    private static int grow(int length, int row) {
+      return Math.max(row + 1, Math.max(INITIAL_CAPACITY, length + (length >> 1)));
+    }
+  }
+
+  private abstract static class Column implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // rows of SQL NULL, created by the first one
+    private BitSet nulls;
+
+    abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+    abstract void trim(int rowCount);
+
+    abstract Object getValue(int row);
+
+    void setNull(int row) {
+      if (nulls == null) {
+        nulls = new BitSet();
+      }
+      nulls.set(row);
+    }
+
+    boolean isNull(int row) {
+      return nulls != null && nulls.get(row);
+    }
+  }
+
+  private static class LongColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    long[] values = new long[0];
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      long value = rs.getLong(columnIndex);
+      if (value == 0 && rs.wasNull()) {
+        setNull(row);
+      }
+      set(row, value);
+    }
+
+    void set(int row, long value) {
+      if (row == values.length) {
+        values = Arrays.copyOf(values, Builder.grow(values.length, row));
+      }
+      values[row] = value;
+    }
+
+    @Override
+    void trim(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+
+    @Override
+    Object getValue(int row) {
+      return values[row];
+    }
+  }
+
+  private static class TimestampColumn extends LongColumn {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      Timestamp value = rs.getTimestamp(columnIndex);
+      if (value == null) {
+        setNull(row);
+        set(row, 0);
+      } else {
+        set(row, value.getTime());
+      }
+    }
+  }
+
+  private static class DoubleColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    double[] values = new double[0];
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      double value = rs.getDouble(columnIndex);
+      if (value == 0 && rs.wasNull()) {
+        setNull(row);
+      }
+      if (row == values.length) {
+        values = Arrays.copyOf(values, Builder.grow(values.length, row));
+      }
+      values[row] = value;
+    }
+
+    @Override
+    void trim(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+
+    @Override
+    Object getValue(int row) {
+      return values[row];
+    }
+  }
+
+  private static class StringColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    int[] codes = new int[0];
+    final List<String> dictionary = new ArrayList<>();
+    // only used while reading
+    transient Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      String value = rs.getString(columnIndex);
+      int code = -1;
+      if (value == null) {
+        setNull(row);
+      } else {
+        Integer existing = dictionaryIndex.get(value);
+        if (existing == null) {
+          code = dictionary.size();
+          dictionary.add(value);
+          dictionaryIndex.put(value, code);
+        } else {
+          code = existing;
+        }
+      }
+      if (row == codes.length) {
+        codes = Arrays.copyOf(codes, Builder.grow(codes.length, row));
+      }
+      codes[row] = code;
+    }
+
+    @Override
+    void trim(int rowCount) {
+      codes = Arrays.copyOf(codes, rowCount);
+      dictionaryIndex = null;
+    }
+
+    @Override
+    Object getValue(int row) {
+      return dictionary.get(codes[row]);
+    }
+  }
+
+  private static class ObjectColumn extends Column {
+    private static final long serialVersionUID = 1L;
+
+    Object[] values = new Object[0];
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      set(row, rs.getObject(columnIndex));
+    }
+
+    void set(int row, Object value) {
+      if (value == null) {
+        setNull(row);
+      }
+      if (row == values.length) {
+        values = Arrays.copyOf(values, Builder.grow(values.length, row));
+      }
+      values[row] = value;
+    }
+
+    @Override
+    void trim(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+
+    @Override
+    Object getValue(int row) {
+      return values[row];
+    }
+  }
+
+  private static class DecimalColumn extends ObjectColumn {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      set(row, rs.getBigDecimal(columnIndex));
+    }
+  }
+
+}
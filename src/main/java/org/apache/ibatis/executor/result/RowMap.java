@@ -0,0 +1,290 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A row of a <code>Map</code> result type, returned when the <code>compactMapResults</code> setting is on.
+ * <p>
+ * The keys are stored once in a {@link Schema} shared by the rows of a result set, each row only holds an array of
+ * values. Keys that are not in the schema are stored in a <code>HashMap</code> created when the first one is put. The
+ * entries of the schema are iterated first, in column order.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public class RowMap extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Schema schema;
+  private final Object[] values;
+  private Map<String, Object> otherEntries;
+  private int size;
+  private transient Set<Entry<String, Object>> entrySet;
+
+  public RowMap(Schema schema) {
+    this.schema = schema;
+    this.values = new Object[schema.keys.length];
+    Arrays.fill(values, Absent.VALUE);
+  }
+
+  @Override
+  public int size() {
+    return otherEntries == null ? size : size + otherEntries.size();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    int index = schema.indexOf(key);
+    if (index >= 0) {
+      return values[index] != Absent.VALUE;
+    }
+    return otherEntries != null && otherEntries.containsKey(key);
+  }
+
+  @Override
+  public Object get(Object key) {
+    int index = schema.indexOf(key);
+    if (index >= 0) {
+      Object value = values[index];
+      return value == Absent.VALUE ? null : value;
+    }
+    return otherEntries == null ? null : otherEntries.get(key);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    int index = schema.indexOf(key);
+    if (index >= 0) {
+      Object previous = values[index];
+      values[index] = value;
+      if (previous == Absent.VALUE) {
+        size++;
+        return null;
+      }
+      return previous;
+    }
+    if (otherEntries == null) {
+      otherEntries = new HashMap<>();
+    }
+    return otherEntries.put(key, value);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    int index = schema.indexOf(key);
+    if (index >= 0) {
+      Object previous = values[index];
+      if (previous == Absent.VALUE) {
+        return null;
+      }
+      values[index] = Absent.VALUE;
+      size--;
+      return previous;
+    }
+    return otherEntries == null ? null : otherEntries.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, Absent.VALUE);
+    size = 0;
+    otherEntries = null;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    Set<Entry<String, Object>> entries = entrySet;
+    if (entries == null) {
+      entries = new EntrySet();
+      entrySet = entries;
+    }
+    return entries;
+  }
+
+  /**
+   * The keys shared by the rows of a result set.
+   */
+  public static class Schema implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] keys;
+    private final Map<String, Integer> indexes;
+
+    public Schema(Collection<String> keys) {
+      this.indexes = new HashMap<>();
+      for (String key : keys) {
+        indexes.putIfAbsent(key, indexes.size());
+      }
+      this.keys = new String[indexes.size()];
+      for (Entry<String, Integer> entry : indexes.entrySet()) {
+        this.keys[entry.getValue()] = entry.getKey();
+      }
+    }
+
+    int indexOf(Object key) {
+      Integer index = indexes.get(key);
+      return index == null ? -1 : index;
+    }
+  }
+
+  // an enum so that the marker of absent values stays the same instance when a row is deserialized
+  private enum Absent {
+    VALUE
+  }
+
+  private class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+    @Override
+    public int size() {
+      return RowMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      RowMap.this.clear();
+    }
+
+    @Override
+    public Iterator<Entry<String, Object>> iterator() {
+      return new EntryIterator();
+    }
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+    private int next = -1;
+    private int current = -1;
+    private Iterator<Entry<String, Object>> otherIterator;
+    // whether the last returned entry came from otherIterator, which hasNext() may create after a schema entry
+    private boolean lastFromOther;
+
+    EntryIterator() {
+      advance();
+    }
+
+    private void advance() {
+      do {
+        next++;
+      } while (next < values.length && values[next] == Absent.VALUE);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next < values.length) {
+        return true;
+      }
+      if (otherIterator == null) {
+        if (otherEntries == null) {
+          return false;
+        }
+        otherIterator = otherEntries.entrySet().iterator();
+      }
+      return otherIterator.hasNext();
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (otherIterator != null) {
+        current = -1;
+        lastFromOther = true;
+        return otherIterator.next();
+      }
+      current = next;
+      advance();
+      return new ValueEntry(current);
+    }
+
+    @Override
+    public void remove() {
+      if (lastFromOther) {
+        otherIterator.remove();
+      } else if (current >= 0 && values[current] != Absent.VALUE) {
+        values[current] = Absent.VALUE;
+        size--;
+        current = -1;
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+  }
+
+  private class ValueEntry implements Entry<String, Object> {
+
+    private final int index;
+
+    ValueEntry(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public String getKey() {
+      return schema.keys[index];
+    }
+
+    @Override
+    public Object getValue() {
+      Object value = values[index];
+      return value == Absent.VALUE ? null : value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      Object previous = getValue();
+      if (values[index] == Absent.VALUE) {
+        size++;
+      }
+      values[index] = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> e = (Entry<?, ?>) o;
+      return getKey().equals(e.getKey()) && (getValue() == null ? e.getValue() == null : getValue().equals(e.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      Object value = getValue();
+      return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+
+}
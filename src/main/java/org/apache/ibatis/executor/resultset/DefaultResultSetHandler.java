@@ -21,8 +21,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -36,12 +39,16 @@ import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.listener.ExecutionListener;
+import org.apache.ibatis.executor.loader.NestedSelectBatch;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnarResult;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.executor.result.RowMap;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -49,16 +56,23 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.PrimitiveSetInvoker;
+import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -71,6 +85,8 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
+  // above this size the nested result objects are released with their table instead of being cleared
+  private static final int NESTED_RESULT_OBJECTS_RELEASE_SIZE = 256;
 
   private final Executor executor;
   private final Configuration configuration;
@@ -82,18 +98,33 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final TypeHandlerRegistry typeHandlerRegistry;
   private final ObjectFactory objectFactory;
   private final ReflectorFactory reflectorFactory;
+  private final ExecutionListener executionListener;
 
-  // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
-  private final Map<String, Object> ancestorObjects = new HashMap<>();
+  // nested resultmaps, created by the first nested result map
+  private Map<RowKey, Object> nestedResultObjects;
+  private Map<String, Object> ancestorObjects;
   private Object previousRowValue;
+  private RowKey previousRowKey;
+  // id columns of the nested result maps in the current result set, by result map and column prefix
+  private Map<ResultMap, Map<String, RowKey.Columns>> rowKeyColumns;
+  // set for a cursor of a resultOrdered statement, whose rows are checked to be grouped by parent
+  private boolean checkNestedResultOrder;
+  // keys of the last parents emitted by a cursor, created by the first completed parent
+  private Set<RowKey> returnedRowKeys;
 
-  // multiple resultsets
-  private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
-  private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
+  // multiple resultsets, created by the first pending relation
+  private Map<String, ResultMapping> nextResultMaps;
+  private Map<CacheKey, List<PendingRelation>> pendingRelations;
 
-  // Cached Automappings
-  private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+  // batched nested selects, created by the first batch
+  private Map<ResultMapping, NestedSelectBatch> nestedSelectBatches;
+  private boolean batchNestedQueries;
+
+  // Cached Automappings, by result map and column prefix
+  private final Map<ResultMap, Map<String, List<UnMappedColumnAutoMapping>>> autoMappingsCache = new HashMap<>();
+
+  // keys of compact map rows, by result map and column prefix, created by the first row
+  private Map<ResultMap, Map<String, RowMap.Schema>> rowMapSchemas;
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
@@ -108,6 +139,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     private final String property;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
+    // set when the column is read and the property is set without boxing
+    private Class<?> beanType;
+    private PrimitiveSetInvoker setInvoker;
+    private int columnIndex;
 
     public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
@@ -129,6 +164,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.objectFactory = configuration.getObjectFactory();
     this.reflectorFactory = configuration.getReflectorFactory();
     this.resultHandler = resultHandler;
+    this.executionListener = configuration.getExecutionListener();
   }
 
   //
@@ -182,6 +218,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
     final List<Object> multipleResults = new ArrayList<>();
+    // objects passed to a custom result handler or a cursor are not kept for the batch loads
+    batchNestedQueries = resultHandler == null;
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
@@ -200,7 +238,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     String[] resultSets = mappedStatement.getResultSets();
     if (resultSets != null) {
       while (rsw != null && resultSetCount < resultSets.length) {
-        ResultMapping parentMapping = nextResultMaps.get(resultSets[resultSetCount]);
+        ResultMapping parentMapping = nextResultMaps == null ? null : nextResultMaps.get(resultSets[resultSetCount]);
         if (parentMapping != null) {
           String nestedResultMapId = parentMapping.getNestedResultMapId();
           ResultMap resultMap = configuration.getResultMap(nestedResultMapId);
@@ -212,6 +250,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    loadNestedSelectBatches();
     return collapseSingleResultList(multipleResults);
   }
 
@@ -230,6 +269,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
+    checkNestedResultOrder = resultMap.hasNestedResultMaps() && mappedStatement.isResultOrdered()
+        && configuration.getResultOrderedCheckSize() > 0;
     return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
   }
 
@@ -281,7 +322,19 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private void cleanUpAfterHandlingResultSet() {
-    nestedResultObjects.clear();
+    if (nestedResultObjects != null) {
+      releaseNestedResultObjects();
+    }
+    rowKeyColumns = null;
+  }
+
+  private void releaseNestedResultObjects() {
+    // a cleared HashMap keeps its table, which a later clear would fill again
+    if (nestedResultObjects.size() > NESTED_RESULT_OBJECTS_RELEASE_SIZE) {
+      nestedResultObjects = new HashMap<>();
+    } else {
+      nestedResultObjects.clear();
+    }
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -295,6 +348,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     try {
       if (parentMapping != null) {
         handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
+      } else if (resultMap.getType() == ColumnarResult.class) {
+        handleColumnarResult(rsw, multipleResults);
       } else {
         if (resultHandler == null) {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
@@ -310,6 +365,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private void handleColumnarResult(ResultSetWrapper rsw, List<Object> multipleResults) throws SQLException {
+    final ColumnarResult.Builder builder = new ColumnarResult.Builder(rsw.getColumnNames(), rsw.getJdbcTypes());
+    final ResultSet resultSet = rsw.getResultSet();
+    skipRows(resultSet, rowBounds);
+    while (builder.getRowCount() < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+      builder.addRow(resultSet);
+    }
+    final DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    resultContext.nextResultObject(builder.build());
+    if (resultHandler == null) {
+      DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
+      defaultResultHandler.handleResult(resultContext);
+      multipleResults.add(defaultResultHandler.getResultList());
+    } else {
+      ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private List<Object> collapseSingleResultList(List<Object> multipleResults) {
     return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
@@ -366,6 +440,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue) {
+    if (executionListener != null) {
+      executionListener.rowMapped(mappedStatement, rowValue);
+    }
     resultContext.nextResultObject(rowValue);
     ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
   }
@@ -474,8 +551,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
-    final String mapKey = resultMap.getId() + ":" + columnPrefix;
-    List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
+    Map<String, List<UnMappedColumnAutoMapping>> autoMappingsByPrefix = autoMappingsCache.get(resultMap);
+    if (autoMappingsByPrefix == null) {
+      autoMappingsByPrefix = new HashMap<>();
+      autoMappingsCache.put(resultMap, autoMappingsByPrefix);
+    }
+    List<UnMappedColumnAutoMapping> autoMapping = autoMappingsByPrefix.get(columnPrefix);
     if (autoMapping == null) {
       autoMapping = new ArrayList<>();
       final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
@@ -498,7 +579,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            final UnMappedColumnAutoMapping mapping = new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive());
+            if (mapping.primitive) {
+              preparePrimitiveAutomaticMapping(rsw, metaObject, mapping, propertyType);
+            }
+            autoMapping.add(mapping);
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
                 .doAction(mappedStatement, columnName, property, propertyType);
@@ -508,7 +593,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
         }
       }
-      autoMappingsCache.put(mapKey, autoMapping);
+      autoMappingsByPrefix.put(columnPrefix, autoMapping);
     }
     return autoMapping;
   }
@@ -518,6 +603,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
+        if (mapping.setInvoker != null && mapping.beanType == metaObject.getOriginalObject().getClass()
+            && metaObject.getObjectWrapper() instanceof BeanWrapper) {
+          foundValues = applyPrimitiveAutomaticMapping(rsw.getResultSet(), mapping, metaObject.getOriginalObject()) || foundValues;
+          continue;
+        }
         final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
         if (value != null) {
           foundValues = true;
@@ -531,11 +621,75 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
+  private void preparePrimitiveAutomaticMapping(ResultSetWrapper rsw, MetaObject metaObject, UnMappedColumnAutoMapping mapping, Class<?> propertyType) {
+    if (!readsPrimitive(mapping.typeHandler, propertyType)
+        || !(metaObject.getObjectWrapper() instanceof BeanWrapper)
+        || mapping.property.indexOf('.') >= 0 || mapping.property.indexOf('[') >= 0) {
+      return;
+    }
+    final Class<?> beanType = metaObject.getOriginalObject().getClass();
+    final Invoker setInvoker = reflectorFactory.findForClass(beanType).getSetInvoker(mapping.property);
+    final int columnIndex = rsw.getColumnNames().indexOf(mapping.column) + 1;
+    if (setInvoker instanceof PrimitiveSetInvoker && setInvoker.getType() == propertyType && columnIndex > 0) {
+      mapping.beanType = beanType;
+      mapping.setInvoker = (PrimitiveSetInvoker) setInvoker;
+      mapping.columnIndex = columnIndex;
+    }
+  }
+
+  private boolean readsPrimitive(TypeHandler<?> typeHandler, Class<?> propertyType) {
+    if (!(typeHandler instanceof PrimitiveTypeHandler)
+        || ((PrimitiveTypeHandler) typeHandler).getPrimitiveType() != propertyType) {
+      return false;
+    }
+    return propertyType == int.class ? typeHandler instanceof PrimitiveTypeHandler.OfInt
+        : propertyType == long.class ? typeHandler instanceof PrimitiveTypeHandler.OfLong
+        : propertyType == double.class && typeHandler instanceof PrimitiveTypeHandler.OfDouble;
+  }
+
+  // reads an int, long or double column and sets it on a primitive property without boxing the value
+  private boolean applyPrimitiveAutomaticMapping(ResultSet rs, UnMappedColumnAutoMapping mapping, Object rowValue) {
+    final PrimitiveSetInvoker setInvoker = mapping.setInvoker;
+    final Class<?> type = setInvoker.getType();
+    int intValue = 0;
+    long longValue = 0;
+    double doubleValue = 0;
+    try {
+      if (type == int.class) {
+        intValue = ((PrimitiveTypeHandler.OfInt) mapping.typeHandler).getIntResult(rs, mapping.columnIndex);
+      } else if (type == long.class) {
+        longValue = ((PrimitiveTypeHandler.OfLong) mapping.typeHandler).getLongResult(rs, mapping.columnIndex);
+      } else {
+        doubleValue = ((PrimitiveTypeHandler.OfDouble) mapping.typeHandler).getDoubleResult(rs, mapping.columnIndex);
+      }
+      if (intValue == 0 && longValue == 0 && doubleValue == 0 && rs.wasNull()) {
+        return false;
+      }
+    } catch (Exception e) {
+      throw new ResultMapException("Error attempting to get column '" + mapping.column + "' from result set.  Cause: " + e, e);
+    }
+    try {
+      if (type == int.class) {
+        setInvoker.setInt(rowValue, intValue);
+      } else if (type == long.class) {
+        setInvoker.setLong(rowValue, longValue);
+      } else {
+        setInvoker.setDouble(rowValue, doubleValue);
+      }
+    } catch (Throwable t) {
+      final Throwable cause = ExceptionUtil.unwrapThrowable(t);
+      final String value = type == int.class ? String.valueOf(intValue)
+          : type == long.class ? String.valueOf(longValue) : String.valueOf(doubleValue);
+      throw new ReflectionException("Could not set property '" + mapping.property + "' of '" + rowValue.getClass() + "' with value '" + value + "' Cause: " + cause.toString(), cause);
+    }
+    return true;
+  }
+
   // MULTIPLE RESULT SETS
 
   private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
     CacheKey parentKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(), parentMapping.getForeignColumn());
-    List<PendingRelation> parents = pendingRelations.get(parentKey);
+    List<PendingRelation> parents = pendingRelations == null ? null : pendingRelations.get(parentKey);
     if (parents != null) {
       for (PendingRelation parent : parents) {
         if (parent != null && rowValue != null) {
@@ -550,6 +704,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     PendingRelation deferLoad = new PendingRelation();
     deferLoad.metaObject = metaResultObject;
     deferLoad.propertyMapping = parentMapping;
+    if (pendingRelations == null) {
+      pendingRelations = new HashMap<>();
+      nextResultMaps = new HashMap<>();
+    }
     List<PendingRelation> relations = pendingRelations.computeIfAbsent(cacheKey, k -> new ArrayList<>());
     // issue #255
     relations.add(deferLoad);
@@ -612,6 +770,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return createPrimitiveResultObject(rsw, resultMap, columnPrefix);
     } else if (!constructorMappings.isEmpty()) {
       return createParameterizedResultObject(rsw, resultType, constructorMappings, constructorArgTypes, constructorArgs, columnPrefix);
+    } else if (resultType == Map.class && configuration.isCompactMapResults()
+        && objectFactory.getClass() == DefaultObjectFactory.class) {
+      return new RowMap(getRowMapSchema(rsw, resultMap, columnPrefix));
     } else if (resultType.isInterface() || metaType.hasDefaultConstructor()) {
       return objectFactory.create(resultType);
     } else if (shouldApplyAutomaticMappings(resultMap, false)) {
@@ -620,6 +781,35 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     throw new ExecutorException("Do not know how to create an instance of " + resultType);
   }
 
+  private RowMap.Schema getRowMapSchema(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) {
+    if (rowMapSchemas == null) {
+      rowMapSchemas = new HashMap<>();
+    }
+    Map<String, RowMap.Schema> schemasByPrefix = rowMapSchemas.computeIfAbsent(resultMap, k -> new HashMap<>());
+    RowMap.Schema schema = schemasByPrefix.get(columnPrefix);
+    if (schema == null) {
+      // the keys auto-mapping puts, in column order, then the mapped properties
+      final List<String> keys = new ArrayList<>();
+      final boolean hasPrefix = columnPrefix != null && !columnPrefix.isEmpty();
+      for (String columnName : rsw.getColumnNames()) {
+        if (!hasPrefix) {
+          keys.add(columnName);
+        } else if (columnName.toUpperCase(Locale.ENGLISH).startsWith(columnPrefix)) {
+          keys.add(columnName.substring(columnPrefix.length()));
+        }
+      }
+      for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+        final String property = propertyMapping.getProperty();
+        if (property != null && property.indexOf('.') < 0) {
+          keys.add(property);
+        }
+      }
+      schema = new RowMap.Schema(keys);
+      schemasByPrefix.put(columnPrefix, schema);
+    }
+    return schema;
+  }
+
   Object createParameterizedResultObject(ResultSetWrapper rsw, Class<?> resultType, List<ResultMapping> constructorMappings,
                                          List<Class<?>> constructorArgTypes, List<Object> constructorArgs, String columnPrefix) {
     boolean foundValues = false;
@@ -752,11 +942,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
       } else {
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        final NestedSelectBatch batch = getNestedSelectBatch(propertyMapping);
         if (propertyMapping.isLazy()) {
+          final ResultLoader resultLoader = batch != null
+              ? batch.addLazy(executor, nestedQuery, nestedQueryParameterObject, key, nestedBoundSql)
+              : new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
+        } else if (batch != null) {
+          batch.add(metaResultObject, nestedQueryParameterObject);
+          value = DEFERRED;
         } else {
+          final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
           value = resultLoader.loadResult();
         }
       }
@@ -764,6 +961,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private NestedSelectBatch getNestedSelectBatch(ResultMapping propertyMapping) {
+    if (!batchNestedQueries || (propertyMapping.getBatchNestedQueryId() == null
+        && (propertyMapping.isLazy() || !configuration.isParallelNestedSelects()))) {
+      return null;
+    }
+    if (nestedSelectBatches == null) {
+      nestedSelectBatches = new IdentityHashMap<>();
+    }
+    return nestedSelectBatches.computeIfAbsent(propertyMapping, k -> new NestedSelectBatch(configuration, k));
+  }
+
+  private void loadNestedSelectBatches() throws SQLException {
+    if (nestedSelectBatches == null) {
+      return;
+    }
+    NestedSelectBatch.loadPending(configuration, executor, nestedSelectBatches.values());
+    nestedSelectBatches.clear();
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
       return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
@@ -851,21 +1067,31 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private void handleRowValuesForNestedResultMap(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
+    if (nestedResultObjects == null) {
+      nestedResultObjects = new HashMap<>();
+      ancestorObjects = new HashMap<>();
+    }
     final DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     Object rowValue = previousRowValue;
+    RowKey rowValueKey = previousRowKey;
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      final RowKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
-          nestedResultObjects.clear();
+          // the previous parent and its nested objects are complete
+          if (checkNestedResultOrder) {
+            checkRowOrder(rowValueKey, rowKey, resultMap);
+          }
+          releaseNestedResultObjects();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
+        rowValueKey = rowKey;
       } else {
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
         if (partialObject == null) {
@@ -876,8 +1102,34 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
       previousRowValue = null;
+      previousRowKey = null;
     } else if (rowValue != null) {
       previousRowValue = rowValue;
+      previousRowKey = rowValueKey;
+    }
+  }
+
+  private void checkRowOrder(RowKey completedKey, RowKey rowKey, ResultMap resultMap) {
+    if (completedKey == RowKey.NULL) {
+      return;
+    }
+    if (returnedRowKeys == null) {
+      // older parents are not checked
+      final int checkSize = configuration.getResultOrderedCheckSize();
+      returnedRowKeys = Collections.newSetFromMap(new LinkedHashMap<RowKey, Boolean>() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RowKey, Boolean> eldest) {
+          return size() > checkSize;
+        }
+      });
+    }
+    returnedRowKeys.add(completedKey);
+    if (returnedRowKeys.contains(rowKey)) {
+      throw new ExecutorException("The rows of the cursor of '" + mappedStatement.getId()
+          + "' are not grouped by the parent object of the result map '" + resultMap.getId()
+          + "', which was already returned. Order the statement by the id columns of the result map.");
     }
   }
 
@@ -885,7 +1137,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, RowKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
     if (rowValue != null) {
@@ -909,7 +1161,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         foundValues = lazyLoader.size() > 0 || foundValues;
         rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
       }
-      if (combinedKey != CacheKey.NULL_CACHE_KEY) {
+      if (combinedKey != RowKey.NULL) {
         nestedResultObjects.put(combinedKey, rowValue);
       }
     }
@@ -924,7 +1176,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // NESTED RESULT MAP (JOIN MAPPING)
   //
 
-  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, RowKey parentRowKey, boolean newObject) {
     boolean foundValues = false;
     for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
       final String nestedResultMapId = resultMapping.getNestedResultMapId();
@@ -943,8 +1195,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+          final RowKey combinedKey = createRowKey(nestedResultMap, rsw, columnPrefix).combine(parentRowKey);
           Object rowValue = nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -1005,37 +1256,28 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
-    List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
-    if (resultMappings.isEmpty()) {
-      if (Map.class.isAssignableFrom(resultMap.getType())) {
-        createRowKeyForMap(rsw, cacheKey);
-      } else {
-        createRowKeyForUnmappedProperties(resultMap, rsw, cacheKey, columnPrefix);
-      }
-    } else {
-      createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
-    }
-    if (cacheKey.getUpdateCount() < 2) {
-      return CacheKey.NULL_CACHE_KEY;
+  private RowKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    if (rowKeyColumns == null) {
+      rowKeyColumns = new HashMap<>();
     }
-    return cacheKey;
-  }
-
-  private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-    if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
-      CacheKey combinedKey;
-      try {
-        combinedKey = rowKey.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
+    final Map<String, RowKey.Columns> columnsByPrefix = rowKeyColumns.computeIfAbsent(resultMap, k -> new HashMap<>());
+    RowKey.Columns columns = columnsByPrefix.get(columnPrefix);
+    if (columns == null) {
+      final RowKey.Builder builder = new RowKey.Builder();
+      List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
+      if (resultMappings.isEmpty()) {
+        if (Map.class.isAssignableFrom(resultMap.getType())) {
+          addRowKeyColumnsForMap(rsw, builder);
+        } else {
+          addRowKeyColumnsForUnmappedProperties(resultMap, rsw, builder, columnPrefix);
+        }
+      } else {
+        addRowKeyColumnsForMappedProperties(resultMap, rsw, builder, resultMappings, columnPrefix);
       }
-      combinedKey.update(parentRowKey);
-      return combinedKey;
+      columns = builder.build();
+      columnsByPrefix.put(columnPrefix, columns);
     }
-    return CacheKey.NULL_CACHE_KEY;
+    return columns.read(rsw.getResultSet());
   }
 
   private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
@@ -1046,12 +1288,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMappings;
   }
 
-  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+  private void addRowKeyColumnsForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, RowKey.Builder builder, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
     for (ResultMapping resultMapping : resultMappings) {
       if (resultMapping.getNestedResultMapId() != null && resultMapping.getResultSet() == null) {
         // Issue #392
         final ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
-        createRowKeyForMappedProperties(nestedResultMap, rsw, cacheKey, nestedResultMap.getConstructorResultMappings(),
+        addRowKeyColumnsForMappedProperties(nestedResultMap, rsw, builder, nestedResultMap.getConstructorResultMappings(),
             prependPrefix(resultMapping.getColumnPrefix(), columnPrefix));
       } else if (resultMapping.getNestedQueryId() == null) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
@@ -1059,17 +1301,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
-          if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-            cacheKey.update(column);
-            cacheKey.update(value);
-          }
+          builder.add(column, rsw.getResultSet().findColumn(column), th, configuration.isReturnInstanceForEmptyRow());
         }
       }
     }
   }
 
-  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, String columnPrefix) throws SQLException {
+  private void addRowKeyColumnsForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, RowKey.Builder builder, String columnPrefix) throws SQLException {
     final MetaClass metaType = MetaClass.forClass(resultMap.getType(), reflectorFactory);
     List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
     for (String column : unmappedColumnNames) {
@@ -1083,23 +1321,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
-        if (value != null) {
-          cacheKey.update(column);
-          cacheKey.update(value);
-        }
+        builder.add(column, rsw.getResultSet().findColumn(column), null, false);
       }
     }
   }
 
-  private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
+  private void addRowKeyColumnsForMap(ResultSetWrapper rsw, RowKey.Builder builder) throws SQLException {
     List<String> columnNames = rsw.getColumnNames();
-    for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
-      if (value != null) {
-        cacheKey.update(columnName);
-        cacheKey.update(value);
-      }
+    for (int i = 0; i < columnNames.size(); i++) {
+      builder.add(columnNames.get(i), i + 1, null, false);
     }
   }
 
@@ -46,8 +46,8 @@ public class ResultSetWrapper {
   private final List<String> classNames = new ArrayList<>();
   private final List<JdbcType> jdbcTypes = new ArrayList<>();
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
-  private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
-  private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final Map<ResultMap, Map<String, List<String>>> mappedColumnNamesMap = new HashMap<>();
+  private final Map<ResultMap, Map<String, List<String>>> unMappedColumnNamesMap = new HashMap<>();
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
@@ -154,30 +154,35 @@ public class ResultSetWrapper {
         unmappedColumnNames.add(columnName);
       }
     }
-    mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
-    unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+    mappedColumnNamesMap.computeIfAbsent(resultMap, k -> new HashMap<>()).put(columnPrefix, mappedColumnNames);
+    unMappedColumnNamesMap.computeIfAbsent(resultMap, k -> new HashMap<>()).put(columnPrefix, unmappedColumnNames);
   }
 
   public List<String> getMappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> mappedColumnNames = getColumnNames(mappedColumnNamesMap, resultMap, columnPrefix);
     if (mappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      mappedColumnNames = getColumnNames(mappedColumnNamesMap, resultMap, columnPrefix);
     }
     return mappedColumnNames;
   }
 
   public List<String> getUnmappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> unMappedColumnNames = getColumnNames(unMappedColumnNamesMap, resultMap, columnPrefix);
     if (unMappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      unMappedColumnNames = getColumnNames(unMappedColumnNamesMap, resultMap, columnPrefix);
     }
     return unMappedColumnNames;
   }
 
-  private String getMapKey(ResultMap resultMap, String columnPrefix) {
-    return resultMap.getId() + ":" + columnPrefix;
+  /**
+   * Looks up column names by result map and prefix, called for each row, without building a combined key.
+   */
+  private static List<String> getColumnNames(Map<ResultMap, Map<String, List<String>>> columnNamesMap,
+      ResultMap resultMap, String columnPrefix) {
+    Map<String, List<String>> columnNamesByPrefix = columnNamesMap.get(resultMap);
+    return columnNamesByPrefix == null ? null : columnNamesByPrefix.get(columnPrefix);
   }
 
   private Set<String> prependPrefixes(Set<String> columnNames, String prefix) {
@@ -0,0 +1,231 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Identifies the object a row maps to with a nested result map, and a nested object within its parent.
+ * <p>
+ * A key holds the values of the id columns read by its {@link Columns}, which are resolved once per result map, column
+ * prefix and result set and compared by identity. A single <code>int</code> or <code>long</code> id is kept unboxed, and
+ * the key of a nested object refers to the key of its parent instead of copying it.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+final class RowKey {
+
+  /**
+   * The key of a row without id values, the object is not deduplicated.
+   */
+  static final RowKey NULL = new RowKey(null, null, 0, null);
+
+  // the value of a key holding an unboxed id
+  private static final Object PRIMITIVE_VALUE = new Object();
+
+  private final Columns columns;
+  // the value of a single column, or an array of the values of several columns
+  private final Object value;
+  private final long primitiveValue;
+  private final RowKey parent;
+  private final int hash;
+
+  private RowKey(Columns columns, Object value, long primitiveValue, RowKey parent) {
+    this.columns = columns;
+    this.value = value;
+    this.primitiveValue = primitiveValue;
+    this.parent = parent;
+    int h = System.identityHashCode(columns);
+    if (value == PRIMITIVE_VALUE) {
+      h = 31 * h + Long.hashCode(primitiveValue);
+    } else if (columns != null && columns.size() > 1) {
+      for (Object columnValue : (Object[]) value) {
+        h = 31 * h + ArrayUtil.hashCode(columnValue);
+      }
+    } else {
+      h = 31 * h + ArrayUtil.hashCode(value);
+    }
+    this.hash = parent == null ? h : 31 * h + parent.hash;
+  }
+
+  /**
+   * Returns the key of this row within a parent row.
+   *
+   * @param parentKey the key of the parent row
+   * @return the combined key, or {@link #NULL} if either key is {@link #NULL}
+   */
+  RowKey combine(RowKey parentKey) {
+    if (this == NULL || parentKey == NULL) {
+      return NULL;
+    }
+    return new RowKey(columns, value, primitiveValue, parentKey);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RowKey)) {
+      return false;
+    }
+    final RowKey other = (RowKey) o;
+    if (hash != other.hash || columns != other.columns || primitiveValue != other.primitiveValue) {
+      return false;
+    }
+    if (columns != null && columns.size() > 1 && value != PRIMITIVE_VALUE) {
+      final Object[] values = (Object[]) value;
+      final Object[] otherValues = (Object[]) other.value;
+      for (int i = 0; i < values.length; i++) {
+        if (!ArrayUtil.equals(values[i], otherValues[i])) {
+          return false;
+        }
+      }
+    } else if (!ArrayUtil.equals(value, other.value)) {
+      return false;
+    }
+    return parent == null ? other.parent == null : parent.equals(other.parent);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  /**
+   * The id columns of a result map in a result set.
+   */
+  static final class Columns {
+
+    private final String[] names;
+    private final int[] indexes;
+    // null to read the value with getString
+    private final TypeHandler<?>[] typeHandlers;
+    // whether null values are part of the key
+    private final boolean[] nullables;
+    // one of them is set when the key is a single int or long column
+    private final PrimitiveTypeHandler.OfInt intTypeHandler;
+    private final PrimitiveTypeHandler.OfLong longTypeHandler;
+
+    private Columns(Builder builder) {
+      final int size = builder.names.size();
+      this.names = builder.names.toArray(new String[size]);
+      this.indexes = new int[size];
+      this.typeHandlers = builder.typeHandlers.toArray(new TypeHandler<?>[size]);
+      this.nullables = new boolean[size];
+      for (int i = 0; i < size; i++) {
+        this.indexes[i] = builder.indexes.get(i);
+        this.nullables[i] = builder.nullables.get(i);
+      }
+      final TypeHandler<?> typeHandler = size == 1 ? this.typeHandlers[0] : null;
+      this.intTypeHandler = typeHandler instanceof PrimitiveTypeHandler.OfInt
+          && ((PrimitiveTypeHandler) typeHandler).getPrimitiveType() == int.class
+          ? (PrimitiveTypeHandler.OfInt) typeHandler : null;
+      this.longTypeHandler = typeHandler instanceof PrimitiveTypeHandler.OfLong
+          && ((PrimitiveTypeHandler) typeHandler).getPrimitiveType() == long.class
+          ? (PrimitiveTypeHandler.OfLong) typeHandler : null;
+    }
+
+    int size() {
+      return names.length;
+    }
+
+    /**
+     * Reads the key of the current row.
+     *
+     * @param rs the result set
+     * @return the key, or {@link RowKey#NULL} if no id column has a value
+     * @throws SQLException if a column cannot be read
+     */
+    RowKey read(ResultSet rs) throws SQLException {
+      if (names.length == 0) {
+        return NULL;
+      }
+      if (intTypeHandler != null || longTypeHandler != null) {
+        return readPrimitive(rs);
+      }
+      if (names.length == 1) {
+        final Object value = readValue(rs, 0);
+        return value == null && !nullables[0] ? NULL : new RowKey(this, value, 0, null);
+      }
+      final Object[] values = new Object[names.length];
+      boolean found = false;
+      for (int i = 0; i < names.length; i++) {
+        values[i] = readValue(rs, i);
+        found = found || values[i] != null || nullables[i];
+      }
+      return found ? new RowKey(this, values, 0, null) : NULL;
+    }
+
+    private RowKey readPrimitive(ResultSet rs) {
+      long value;
+      try {
+        value = intTypeHandler != null ? intTypeHandler.getIntResult(rs, indexes[0])
+            : longTypeHandler.getLongResult(rs, indexes[0]);
+        if (value == 0 && rs.wasNull()) {
+          return nullables[0] ? new RowKey(this, null, 0, null) : NULL;
+        }
+      } catch (Exception e) {
+        throw new ResultMapException("Error attempting to get column '" + names[0] + "' from result set.  Cause: " + e, e);
+      }
+      return new RowKey(this, PRIMITIVE_VALUE, value, null);
+    }
+
+    private Object readValue(ResultSet rs, int column) throws SQLException {
+      final TypeHandler<?> typeHandler = typeHandlers[column];
+      return typeHandler == null ? rs.getString(indexes[column]) : typeHandler.getResult(rs, names[column]);
+    }
+  }
+
+  static final class Builder {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Integer> indexes = new ArrayList<>();
+    private final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+    private final List<Boolean> nullables = new ArrayList<>();
+
+    /**
+     * Adds an id column.
+     *
+     * @param name the label of the column
+     * @param index the index of the column
+     * @param typeHandler the type handler reading the column, <code>null</code> to read it with getString
+     * @param nullable whether a null value of the column is part of the key
+     * @return this builder
+     */
+    Builder add(String name, int index, TypeHandler<?> typeHandler, boolean nullable) {
+      names.add(name);
+      indexes.add(index);
+      typeHandlers.add(typeHandler);
+      nullables.add(nullable);
+      return this;
+    }
+
+    Columns build() {
+      return new Columns(this);
+    }
+  }
+
+}
@@ -23,6 +23,7 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
@@ -47,6 +48,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
   protected final Executor executor;
   protected final MappedStatement mappedStatement;
   protected final RowBounds rowBounds;
+  protected final StatementMetrics metrics;
 
   protected BoundSql boundSql;
 
@@ -58,6 +60,8 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
+    this.metrics = configuration.isStatementMetricsEnabled()
+        ? configuration.getStatementMetricsRegistry().getMetrics(mappedStatement.getId()) : null;
 
     if (boundSql == null) { // issue #435, get the key before calculating the statement
       generateKeys(parameterObject);
@@ -85,9 +89,11 @@ public abstract class BaseStatementHandler implements StatementHandler {
     ErrorContext.instance().sql(boundSql.getSql());
     Statement statement = null;
     try {
+      long start = startTiming();
       statement = instantiateStatement(connection);
       setStatementTimeout(statement, transactionTimeout);
       setFetchSize(statement);
+      recordPrepareTime(start);
       return statement;
     } catch (SQLException e) {
       closeStatement(statement);
@@ -100,6 +106,45 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected abstract Statement instantiateStatement(Connection connection) throws SQLException;
 
+  /**
+   * @return the current time in nanoseconds when statement metrics are recorded, 0 otherwise
+   * @since 3.5.3
+   */
+  protected long startTiming() {
+    return metrics == null ? 0L : System.nanoTime();
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  protected void recordPrepareTime(long start) {
+    if (metrics != null) {
+      metrics.addPrepareTime(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * @return the end of the execution, to time the mapping of its results
+   * @since 3.5.3
+   */
+  protected long recordExecuteTime(long start) {
+    if (metrics == null) {
+      return 0L;
+    }
+    long now = System.nanoTime();
+    metrics.addExecuteTime(now - start);
+    return now;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  protected void recordMappingTime(long start) {
+    if (metrics != null) {
+      metrics.addMappingTime(System.nanoTime() - start);
+    }
+  }
+
   protected void setStatementTimeout(Statement stmt, Integer transactionTimeout) throws SQLException {
     Integer queryTimeout = null;
     if (mappedStatement.getTimeout() != null) {
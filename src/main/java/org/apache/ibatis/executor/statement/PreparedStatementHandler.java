@@ -44,7 +44,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startTiming();
     ps.execute();
+    recordExecuteTime(start);
     int rows = ps.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
@@ -61,14 +63,20 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startTiming();
     ps.execute();
-    return resultSetHandler.handleResultSets(ps);
+    long executed = recordExecuteTime(start);
+    List<E> results = resultSetHandler.handleResultSets(ps);
+    recordMappingTime(executed);
+    return results;
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startTiming();
     ps.execute();
+    recordExecuteTime(start);
     return resultSetHandler.handleCursorResultSets(ps);
   }
 
@@ -91,7 +99,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
 
   @Override
   public void parameterize(Statement statement) throws SQLException {
+    long start = startTiming();
     parameterHandler.setParameters((PreparedStatement) statement);
+    recordPrepareTime(start);
   }
 
 }
@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.util.List;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Writes a single message for a statement that exceeded the <code>slowStatementLogThreshold</code>. Unlike the JDBC
+ * proxies, nothing is recorded while the statement executes: the parameters are resolved again from the parameter
+ * object when the message is written.
+ *
+ * @since 3.5.3
+ */
+public final class SlowStatementLogger extends BaseJdbcLogger {
+
+  private SlowStatementLogger(Log statementLog, int queryStack) {
+    super(statementLog, queryStack);
+  }
+
+  /**
+   * Logs a slow statement.
+   *
+   * @param statementLog the log of the statement
+   * @param configuration the configuration used to resolve the parameters
+   * @param boundSql the executed SQL
+   * @param parameterObject the parameter object of the statement
+   * @param elapsedMillis the duration of the statement
+   * @param queryStack the depth of the statement in nested queries
+   */
+  public static void log(Log statementLog, Configuration configuration, BoundSql boundSql, Object parameterObject,
+      long elapsedMillis, int queryStack) {
+    if (statementLog.isDebugEnabled()) {
+      new SlowStatementLogger(statementLog, queryStack).log(configuration, parameterObject, boundSql, elapsedMillis);
+    }
+  }
+
+  private void log(Configuration configuration, Object parameterObject, BoundSql boundSql, long elapsedMillis) {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    MetaObject metaObject = null;
+    for (int i = 0; i < parameterMappings.size(); i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      String propertyName = parameterMapping.getProperty();
+      Object value;
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      setColumn(i + 1, value);
+    }
+    debug("      Slow: " + elapsedMillis + " ms, " + removeBreakingWhitespace(boundSql.getSql()) + "| Parameters: "
+        + getParameterValueString(), true);
+  }
+
+}
@@ -20,7 +20,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.reflection.MetaObject;
-import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -62,7 +62,10 @@ public class BoundSql {
   }
 
   public boolean hasAdditionalParameter(String name) {
-    String paramName = new PropertyTokenizer(name).getName();
+    if (additionalParameters.isEmpty()) {
+      return false;
+    }
+    String paramName = PropertyPath.of(name).getTokenizer().getName();
     return additionalParameters.containsKey(paramName);
   }
 
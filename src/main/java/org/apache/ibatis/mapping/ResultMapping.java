@@ -45,6 +45,8 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private String batchNestedQueryId;
+  private String batchKeyProperty;
 
   ResultMapping() {
   }
@@ -132,6 +134,22 @@ public class ResultMapping {
       return this;
     }
 
+    /**
+     * @since 3.5.3
+     */
+    public Builder batchNestedQueryId(String batchNestedQueryId) {
+      resultMapping.batchNestedQueryId = batchNestedQueryId;
+      return this;
+    }
+
+    /**
+     * @since 3.5.3
+     */
+    public Builder batchKeyProperty(String batchKeyProperty) {
+      resultMapping.batchKeyProperty = batchKeyProperty;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -167,6 +185,17 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchNestedQueryId != null) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException("Mapping with batchSelect is missing select attribute for property " + resultMapping.property);
+        }
+        if (resultMapping.batchKeyProperty == null) {
+          throw new IllegalStateException("Mapping with batchSelect is missing batchKeyProperty attribute for property " + resultMapping.property);
+        }
+        if (!resultMapping.composites.isEmpty()) {
+          throw new IllegalStateException("Mapping with batchSelect cannot use a composite column in property " + resultMapping.property);
+        }
+      }
     }
 
     private void resolveTypeHandler() {
@@ -251,6 +280,20 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public String getBatchNestedQueryId() {
+    return batchNestedQueryId;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public String getBatchKeyProperty() {
+    return batchKeyProperty;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -298,6 +341,8 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchNestedQueryId='").append(batchNestedQueryId).append('\'');
+    sb.append(", batchKeyProperty='").append(batchKeyProperty).append('\'');
     sb.append('}');
     return sb.toString();
   }
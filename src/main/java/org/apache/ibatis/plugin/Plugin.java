@@ -30,6 +30,35 @@ import org.apache.ibatis.reflection.ExceptionUtil;
  */
 public class Plugin implements InvocationHandler {
 
+  /**
+   * The signatures of each interceptor class, read once from its {@link Intercepts} annotation.
+   */
+  private static final ClassValue<Map<Class<?>, Set<Method>>> signatureMaps = new ClassValue<Map<Class<?>, Set<Method>>>() {
+    @Override
+    protected Map<Class<?>, Set<Method>> computeValue(Class<?> interceptorType) {
+      return getSignatureMap(interceptorType);
+    }
+  };
+
+  /**
+   * The intercepted interfaces of each target class by interceptor class. Targets such as statement handlers are
+   * wrapped for every statement, their interfaces are only looked up the first time. A target class only keeps its own
+   * interfaces, so the cache does not retain the class loader of another class; the proxy classes themselves are cached
+   * by {@link Proxy}.
+   */
+  private static final ClassValue<ClassValue<Class<?>[]>> proxyInterfaces = new ClassValue<ClassValue<Class<?>[]>>() {
+    @Override
+    protected ClassValue<Class<?>[]> computeValue(Class<?> interceptorType) {
+      Map<Class<?>, Set<Method>> signatureMap = signatureMaps.get(interceptorType);
+      return new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+          return getAllInterfaces(type, signatureMap);
+        }
+      };
+    }
+  };
+
   private final Object target;
   private final Interceptor interceptor;
   private final Map<Class<?>, Set<Method>> signatureMap;
@@ -41,9 +70,9 @@ public class Plugin implements InvocationHandler {
   }
 
   public static Object wrap(Object target, Interceptor interceptor) {
-    Map<Class<?>, Set<Method>> signatureMap = getSignatureMap(interceptor);
+    Map<Class<?>, Set<Method>> signatureMap = signatureMaps.get(interceptor.getClass());
     Class<?> type = target.getClass();
-    Class<?>[] interfaces = getAllInterfaces(type, signatureMap);
+    Class<?>[] interfaces = proxyInterfaces.get(interceptor.getClass()).get(type);
     if (interfaces.length > 0) {
       return Proxy.newProxyInstance(
           type.getClassLoader(),
@@ -66,11 +95,11 @@ public class Plugin implements InvocationHandler {
     }
   }
 
-  private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
-    Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
+  private static Map<Class<?>, Set<Method>> getSignatureMap(Class<?> interceptorType) {
+    Intercepts interceptsAnnotation = interceptorType.getAnnotation(Intercepts.class);
     // issue #251
     if (interceptsAnnotation == null) {
-      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptor.getClass().getName());
+      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptorType.getName());
     }
     Signature[] sigs = interceptsAnnotation.value();
     Map<Class<?>, Set<Method>> signatureMap = new HashMap<>();
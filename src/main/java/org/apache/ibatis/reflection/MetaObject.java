@@ -20,6 +20,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.reflection.wrapper.CollectionWrapper;
@@ -32,6 +34,8 @@ import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
  */
 public class MetaObject {
 
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
   private final Object originalObject;
   private final ObjectWrapper objectWrapper;
   private final ObjectFactory objectFactory;
@@ -110,34 +114,56 @@ public class MetaObject {
   }
 
   public Object getValue(String name) {
-    PropertyTokenizer prop = new PropertyTokenizer(name);
-    if (prop.hasNext()) {
-      MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
-      if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
-        return null;
+    PropertyPath path = PropertyPath.of(name);
+    if (!path.isNested()) {
+      return objectWrapper.get(path.getTokenizer());
+    }
+    Object value = objectWrapper.get(path.getSegment(0));
+    for (int i = 1, n = path.getSegmentCount(); i < n && value != null; i++) {
+      value = getSegmentValue(value, path.getSegment(i));
+    }
+    return value;
+  }
+
+  public void setValue(String name, Object value) {
+    PropertyPath path = PropertyPath.of(name);
+    MetaObject metaObject = this;
+    int last = path.getSegmentCount() - 1;
+    for (int i = 0; i < last; i++) {
+      Object child = metaObject.objectWrapper.get(path.getSegment(i));
+      if (child != null) {
+        metaObject = MetaObject.forObject(child, objectFactory, objectWrapperFactory, reflectorFactory);
+      } else if (value == null) {
+        // don't instantiate child path if value is null
+        return;
       } else {
-        return metaValue.getValue(prop.getChildren());
+        String remaining = path.getPath(i);
+        metaObject = metaObject.objectWrapper.instantiatePropertyValue(remaining, new PropertyTokenizer(remaining), objectFactory);
       }
-    } else {
-      return objectWrapper.get(prop);
     }
+    metaObject.objectWrapper.set(path.getSegment(last), value);
   }
 
-  public void setValue(String name, Object value) {
-    PropertyTokenizer prop = new PropertyTokenizer(name);
-    if (prop.hasNext()) {
-      MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
-      if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
-        if (value == null) {
-          // don't instantiate child path if value is null
-          return;
-        } else {
-          metaValue = objectWrapper.instantiatePropertyValue(name, prop, objectFactory);
-        }
+  /**
+   * Reads a segment of a nested path from an intermediate value. Plain beans are read through the getter of their
+   * reflector, other values are wrapped as the root object is.
+   */
+  private Object getSegmentValue(Object object, PropertyTokenizer segment) {
+    if (segment.getIndex() != null || object instanceof ObjectWrapper || object instanceof Map
+        || object instanceof Collection || objectWrapperFactory.hasWrapperFor(object)) {
+      return MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory).objectWrapper.get(segment);
+    }
+    try {
+      Invoker method = reflectorFactory.findForClass(object.getClass()).getGetInvoker(segment.getName());
+      try {
+        return method.invoke(object, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
       }
-      metaValue.setValue(prop.getChildren(), value);
-    } else {
-      objectWrapper.set(prop, value);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not get property '" + segment.getName() + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
     }
   }
 
@@ -47,6 +47,11 @@ public class ParamNameResolver {
    */
   private final SortedMap<Integer, String> names;
 
+  // the names flattened for getNamedParams(), the generic name is null when a @Param uses it
+  private final int[] paramIndexes;
+  private final String[] paramNames;
+  private final String[] genericParamNames;
+
   private boolean hasParamAnnotation;
 
   public ParamNameResolver(Configuration config, Method method) {
@@ -82,6 +87,18 @@ public class ParamNameResolver {
       map.put(paramIndex, name);
     }
     names = Collections.unmodifiableSortedMap(map);
+    paramIndexes = new int[map.size()];
+    paramNames = new String[map.size()];
+    genericParamNames = new String[map.size()];
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : map.entrySet()) {
+      paramIndexes[i] = entry.getKey();
+      paramNames[i] = entry.getValue();
+      final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
+      // ensure not to overwrite parameter named with @Param
+      genericParamNames[i] = map.containsValue(genericParamName) ? null : genericParamName;
+      i++;
+    }
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -108,23 +125,20 @@ public class ParamNameResolver {
    * </p>
    */
   public Object getNamedParams(Object[] args) {
-    final int paramCount = names.size();
+    final int paramCount = paramIndexes.length;
     if (args == null || paramCount == 0) {
       return null;
     } else if (!hasParamAnnotation && paramCount == 1) {
-      return args[names.firstKey()];
+      return args[paramIndexes[0]];
     } else {
-      final Map<String, Object> param = new ParamMap<>();
-      int i = 0;
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
-        param.put(entry.getValue(), args[entry.getKey()]);
+      final Map<String, Object> param = new ParamMap<>(paramCount * 2);
+      for (int i = 0; i < paramCount; i++) {
+        final Object arg = args[paramIndexes[i]];
+        param.put(paramNames[i], arg);
         // add generic param names (param1, param2, ...)
-        final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
-          param.put(genericParamName, args[entry.getKey()]);
+        if (genericParamNames[i] != null) {
+          param.put(genericParamNames[i], arg);
         }
-        i++;
       }
       return param;
     }
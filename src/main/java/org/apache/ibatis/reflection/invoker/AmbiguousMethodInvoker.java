@@ -33,4 +33,19 @@ public class AmbiguousMethodInvoker extends MethodInvoker {
   public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
     throw new ReflectionException(exceptionMessage);
   }
+
+  @Override
+  public void setInt(Object target, int value) {
+    throw new ReflectionException(exceptionMessage);
+  }
+
+  @Override
+  public void setLong(Object target, long value) {
+    throw new ReflectionException(exceptionMessage);
+  }
+
+  @Override
+  public void setDouble(Object target, double value) {
+    throw new ReflectionException(exceptionMessage);
+  }
 }
@@ -15,31 +15,180 @@
  */
 package org.apache.ibatis.reflection.invoker;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 
 import org.apache.ibatis.reflection.Reflector;
 
 /**
+ * Invokes a getter or a setter.
+ * <p>
+ * On its first call the invoker generates a {@link Function} (getters) or a {@link BiConsumer} (setters) bound to the
+ * method with {@link LambdaMetafactory}, which is then called instead of {@link Method#invoke(Object, Object...)} to
+ * avoid its access checks and argument array. Calls whose arguments the generated function would not accept, and
+ * methods it cannot be generated for, use reflection so the exceptions stay the same.
+ * </p>
+ * <p>
+ * Setters of an <code>int</code>, <code>long</code> or <code>double</code> can also be called without boxing the value,
+ * through an {@link ObjIntConsumer}, {@link ObjLongConsumer} or {@link ObjDoubleConsumer} generated the same way.
+ * </p>
+ *
  * @author Clinton Begin
  */
-public class MethodInvoker implements Invoker {
+public class MethodInvoker implements PrimitiveSetInvoker {
+
+  private static final Object REFLECTION_ONLY = new Object();
+  private static final int ALLOWED_MODES = MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED
+      | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC;
+  private static final Method privateLookupInMethod;
+  private static final Constructor<Lookup> lookupConstructor;
+
+  static {
+    Method privateLookupIn;
+    try {
+      privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    } catch (NoSuchMethodException e) {
+      privateLookupIn = null;
+    }
+    privateLookupInMethod = privateLookupIn;
+
+    Constructor<Lookup> lookup = null;
+    if (privateLookupInMethod == null) {
+      // JDK 1.8
+      try {
+        lookup = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+        lookup.setAccessible(true);
+      } catch (Throwable t) {
+        lookup = null;
+      }
+    }
+    lookupConstructor = lookup;
+  }
 
   private final Class<?> type;
   private final Method method;
+  private final int parameterCount;
+  private final Class<?> boxedType;
+  // the generated Function or BiConsumer, REFLECTION_ONLY if it cannot be generated
+  private volatile Object function;
+  // the generated ObjIntConsumer, ObjLongConsumer or ObjDoubleConsumer of a primitive setter
+  private volatile Object primitiveFunction;
 
   public MethodInvoker(Method method) {
     this.method = method;
+    this.parameterCount = method.getParameterTypes().length;
 
-    if (method.getParameterTypes().length == 1) {
+    if (parameterCount == 1) {
       type = method.getParameterTypes()[0];
     } else {
       type = method.getReturnType();
     }
+    this.boxedType = box(type);
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    Object function = this.function;
+    if (function == null) {
+      function = createFunction();
+      this.function = function;
+    }
+    if (function != REFLECTION_ONLY && method.getDeclaringClass().isInstance(target)
+        && (args == null ? 0 : args.length) == parameterCount) {
+      if (parameterCount == 0) {
+        try {
+          return ((Function<Object, Object>) function).apply(target);
+        } catch (Throwable t) {
+          throw new InvocationTargetException(t);
+        }
+      }
+      Object value = args[0];
+      if (value == null ? !type.isPrimitive() : boxedType.isInstance(value)) {
+        try {
+          ((BiConsumer<Object, Object>) function).accept(target, value);
+          return null;
+        } catch (Throwable t) {
+          throw new InvocationTargetException(t);
+        }
+      }
+    }
+    return invokeMethod(target, args);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void setInt(Object target, int value) throws IllegalAccessException, InvocationTargetException {
+    Object function = getPrimitiveFunction(target, int.class);
+    if (function == null) {
+      invoke(target, new Object[] { value });
+      return;
+    }
+    try {
+      ((ObjIntConsumer<Object>) function).accept(target, value);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void setLong(Object target, long value) throws IllegalAccessException, InvocationTargetException {
+    Object function = getPrimitiveFunction(target, long.class);
+    if (function == null) {
+      invoke(target, new Object[] { value });
+      return;
+    }
+    try {
+      ((ObjLongConsumer<Object>) function).accept(target, value);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void setDouble(Object target, double value) throws IllegalAccessException, InvocationTargetException {
+    Object function = getPrimitiveFunction(target, double.class);
+    if (function == null) {
+      invoke(target, new Object[] { value });
+      return;
+    }
+    try {
+      ((ObjDoubleConsumer<Object>) function).accept(target, value);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  private Object getPrimitiveFunction(Object target, Class<?> valueType) {
+    if (type != valueType || parameterCount != 1 || !method.getDeclaringClass().isInstance(target)) {
+      return null;
+    }
+    Object function = this.primitiveFunction;
+    if (function == null) {
+      final Class<?> functionType = valueType == int.class ? ObjIntConsumer.class
+          : valueType == long.class ? ObjLongConsumer.class : ObjDoubleConsumer.class;
+      function = createFunction(functionType, "accept", MethodType.methodType(void.class, Object.class, valueType),
+          MethodType.methodType(void.class, method.getDeclaringClass(), valueType));
+      this.primitiveFunction = function;
+    }
+    return function == REFLECTION_ONLY ? null : function;
+  }
+
+  private Object invokeMethod(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
     try {
       return method.invoke(target, args);
     } catch (IllegalAccessException e) {
@@ -52,6 +201,51 @@ public class MethodInvoker implements Invoker {
     }
   }
 
+  private Object createFunction() {
+    final Class<?> declaringClass = method.getDeclaringClass();
+    if (parameterCount == 0) {
+      return createFunction(Function.class, "apply", MethodType.methodType(Object.class, Object.class),
+          MethodType.methodType(boxedType, declaringClass));
+    }
+    return createFunction(BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class),
+        MethodType.methodType(void.class, declaringClass, boxedType));
+  }
+
+  private Object createFunction(Class<?> functionType, String functionMethod, MethodType functionMethodType,
+      MethodType instantiatedMethodType) {
+    final Class<?> declaringClass = method.getDeclaringClass();
+    // a generated function cannot refer to a class without a binary name such as a lambda
+    if (parameterCount > 1 || Modifier.isStatic(method.getModifiers()) || declaringClass.isSynthetic()) {
+      return REFLECTION_ONLY;
+    }
+    try {
+      final Lookup lookup = privateLookup(declaringClass);
+      if (lookup == null) {
+        return REFLECTION_ONLY;
+      }
+      final MethodHandle handle = lookup.unreflect(method);
+      return LambdaMetafactory.metafactory(lookup, functionMethod, MethodType.methodType(functionType),
+          functionMethodType, handle, instantiatedMethodType).getTarget().invokeWithArguments();
+    } catch (Throwable t) {
+      // e.g. a class in a module that is not open or a security manager denying access
+      return REFLECTION_ONLY;
+    }
+  }
+
+  private static Lookup privateLookup(Class<?> declaringClass) throws Exception {
+    if (privateLookupInMethod != null) {
+      return (Lookup) privateLookupInMethod.invoke(null, declaringClass, MethodHandles.lookup());
+    }
+    return lookupConstructor == null ? null : lookupConstructor.newInstance(declaringClass, ALLOWED_MODES);
+  }
+
+  private static Class<?> box(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return type;
+    }
+    return MethodType.methodType(type).wrap().returnType();
+  }
+
   @Override
   public Class<?> getType() {
     return type;
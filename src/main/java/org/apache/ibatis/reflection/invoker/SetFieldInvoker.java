@@ -22,7 +22,7 @@ import org.apache.ibatis.reflection.Reflector;
 /**
  * @author Clinton Begin
  */
-public class SetFieldInvoker implements Invoker {
+public class SetFieldInvoker implements PrimitiveSetInvoker {
   private final Field field;
 
   public SetFieldInvoker(Field field) {
@@ -44,6 +44,60 @@ public class SetFieldInvoker implements Invoker {
     return null;
   }
 
+  @Override
+  public void setInt(Object target, int value) throws IllegalAccessException {
+    if (field.getType() != int.class) {
+      invoke(target, new Object[] { value });
+      return;
+    }
+    try {
+      field.setInt(target, value);
+    } catch (IllegalAccessException e) {
+      if (Reflector.canControlMemberAccessible()) {
+        field.setAccessible(true);
+        field.setInt(target, value);
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public void setLong(Object target, long value) throws IllegalAccessException {
+    if (field.getType() != long.class) {
+      invoke(target, new Object[] { value });
+      return;
+    }
+    try {
+      field.setLong(target, value);
+    } catch (IllegalAccessException e) {
+      if (Reflector.canControlMemberAccessible()) {
+        field.setAccessible(true);
+        field.setLong(target, value);
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public void setDouble(Object target, double value) throws IllegalAccessException {
+    if (field.getType() != double.class) {
+      invoke(target, new Object[] { value });
+      return;
+    }
+    try {
+      field.setDouble(target, value);
+    } catch (IllegalAccessException e) {
+      if (Reflector.canControlMemberAccessible()) {
+        field.setAccessible(true);
+        field.setDouble(target, value);
+      } else {
+        throw e;
+      }
+    }
+  }
+
   @Override
   public Class<?> getType() {
     return field.getType();
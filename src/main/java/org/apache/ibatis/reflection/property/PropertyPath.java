@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.property;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A property expression such as <code>order.lines[0].product</code> split once into its segments.
+ * <p>
+ * Paths are cached by expression, so the same instances are shared by all the threads and must not be modified. The
+ * cache stops growing after {@value #MAX_CACHED_PATHS} expressions, further expressions are parsed on each call.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public final class PropertyPath {
+
+  private static final int MAX_CACHED_PATHS = 4096;
+  private static final ConcurrentMap<String, PropertyPath> cache = new ConcurrentHashMap<>();
+
+  private final String fullname;
+  private final PropertyTokenizer tokenizer;
+  private final PropertyTokenizer[] segments;
+  private final String[] paths;
+  private final String parentPath;
+
+  private PropertyPath(String fullname) {
+    this.fullname = fullname;
+    this.tokenizer = new PropertyTokenizer(fullname);
+    int count = 1;
+    for (PropertyTokenizer prop = tokenizer; prop.hasNext(); prop = prop.next()) {
+      count++;
+    }
+    this.segments = new PropertyTokenizer[count];
+    this.paths = new String[count];
+    PropertyTokenizer prop = tokenizer;
+    paths[0] = fullname;
+    for (int i = 0; i < count; i++) {
+      segments[i] = new PropertyTokenizer(prop.getIndexedName());
+      if (prop.hasNext()) {
+        paths[i + 1] = prop.getChildren();
+        prop = prop.next();
+      }
+    }
+    this.parentPath = count == 1 ? null
+        : fullname.substring(0, fullname.length() - paths[count - 1].length() - 1);
+  }
+
+  /**
+   * @param fullname the property expression
+   * @return the parsed expression
+   */
+  public static PropertyPath of(String fullname) {
+    PropertyPath path = cache.get(fullname);
+    if (path == null) {
+      path = new PropertyPath(fullname);
+      if (cache.size() < MAX_CACHED_PATHS) {
+        cache.putIfAbsent(fullname, path);
+      }
+    }
+    return path;
+  }
+
+  public String getFullname() {
+    return fullname;
+  }
+
+  /**
+   * @return the tokenizer of the whole expression
+   */
+  public PropertyTokenizer getTokenizer() {
+    return tokenizer;
+  }
+
+  public boolean isNested() {
+    return segments.length > 1;
+  }
+
+  public int getSegmentCount() {
+    return segments.length;
+  }
+
+  /**
+   * @param i the index of the segment
+   * @return the tokenizer of the segment alone, without its children
+   */
+  public PropertyTokenizer getSegment(int i) {
+    return segments[i];
+  }
+
+  /**
+   * @return the expression without its last segment, <code>null</code> if it is not nested
+   */
+  public String getParentPath() {
+    return parentPath;
+  }
+
+  /**
+   * @param i the index of the first segment
+   * @return the expression from the segment on
+   */
+  public String getPath(int i) {
+    return paths[i];
+  }
+
+}
@@ -17,7 +17,9 @@ package org.apache.ibatis.scripting.defaults;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
@@ -25,7 +27,12 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
@@ -38,6 +45,8 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  */
 public class DefaultParameterHandler implements ParameterHandler {
 
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
   private final TypeHandlerRegistry typeHandlerRegistry;
 
   private final MappedStatement mappedStatement;
@@ -63,6 +72,11 @@ public class DefaultParameterHandler implements ParameterHandler {
     ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings != null) {
+      // resolved once for all the parameters instead of once per parameter
+      final boolean parameterHasTypeHandler = parameterObject != null
+          && typeHandlerRegistry.hasTypeHandler(parameterObject.getClass());
+      final PropertyReader propertyReader = parameterObject == null || parameterHasTypeHandler ? null
+          : new PropertyReader();
       for (int i = 0; i < parameterMappings.size(); i++) {
         ParameterMapping parameterMapping = parameterMappings.get(i);
         if (parameterMapping.getMode() != ParameterMode.OUT) {
@@ -72,11 +86,10 @@ public class DefaultParameterHandler implements ParameterHandler {
             value = boundSql.getAdditionalParameter(propertyName);
           } else if (parameterObject == null) {
             value = null;
-          } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+          } else if (parameterHasTypeHandler) {
             value = parameterObject;
           } else {
-            MetaObject metaObject = configuration.newMetaObject(parameterObject);
-            value = metaObject.getValue(propertyName);
+            value = propertyReader.getValue(propertyName);
           }
           TypeHandler typeHandler = parameterMapping.getTypeHandler();
           JdbcType jdbcType = parameterMapping.getJdbcType();
@@ -93,4 +106,55 @@ public class DefaultParameterHandler implements ParameterHandler {
     }
   }
 
+  /**
+   * Reads the properties of the parameter object. Simple properties of beans and maps are read directly, through the
+   * cached getters of the bean class; nested properties and wrapped objects go through a single {@link MetaObject}.
+   */
+  private class PropertyReader {
+
+    private final boolean direct;
+    private final Reflector reflector;
+    private MetaObject metaObject;
+
+    PropertyReader() {
+      this.direct = !(parameterObject instanceof ObjectWrapper) && !(parameterObject instanceof Collection)
+          && !configuration.getObjectWrapperFactory().hasWrapperFor(parameterObject);
+      this.reflector = direct && !(parameterObject instanceof Map)
+          ? configuration.getReflectorFactory().findForClass(parameterObject.getClass()) : null;
+    }
+
+    Object getValue(String propertyName) {
+      if (direct && isSimpleProperty(propertyName)) {
+        if (reflector == null) {
+          return ((Map<?, ?>) parameterObject).get(propertyName);
+        } else if (reflector.hasGetter(propertyName)) {
+          return getBeanProperty(reflector.getGetInvoker(propertyName), propertyName);
+        }
+      }
+      if (metaObject == null) {
+        metaObject = configuration.newMetaObject(parameterObject);
+      }
+      return metaObject.getValue(propertyName);
+    }
+
+    private Object getBeanProperty(Invoker invoker, String propertyName) {
+      try {
+        try {
+          return invoker.invoke(parameterObject, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + propertyName + "' from "
+            + parameterObject.getClass() + ".  Cause: " + t.toString(), t);
+      }
+    }
+
+    private boolean isSimpleProperty(String propertyName) {
+      return propertyName.indexOf('.') < 0 && propertyName.indexOf('[') < 0;
+    }
+  }
+
 }
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -25,6 +26,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
@@ -48,9 +53,12 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.listener.ExecutionListener;
+import org.apache.ibatis.executor.listener.ExecutionListenerChain;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
@@ -113,9 +121,13 @@ public class Configuration {
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
+  protected boolean compactMapResults;
 
   protected String logPrefix;
   protected Class<? extends Log> logImpl;
+  protected Integer statementLogSampleRate;
+  protected Integer slowStatementLogThreshold;
+  protected boolean statementMetricsEnabled;
   protected Class<? extends VFS> vfsImpl;
   protected LocalCacheScope localCacheScope = LocalCacheScope.SESSION;
   protected JdbcType jdbcTypeForNull = JdbcType.OTHER;
@@ -123,6 +135,17 @@ public class Configuration {
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
   protected ResultSetType defaultResultSetType;
+  protected Integer batchFlushSize;
+  protected Integer batchFlushBytes;
+  protected boolean batchGroupStatements;
+  protected Integer batchInsertRewriteParameterLimit;
+  protected Integer nestedSelectBatchSize;
+  protected boolean parallelNestedSelects;
+  protected Integer nestedSelectPoolSize;
+  protected volatile ExecutorService nestedSelectExecutor;
+  protected Integer asyncPoolSize;
+  protected volatile ExecutorService asyncExecutor;
+  protected int resultOrderedCheckSize = 1024;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
@@ -146,9 +169,11 @@ public class Configuration {
 
   protected final MapperRegistry mapperRegistry = new MapperRegistry(this);
   protected final InterceptorChain interceptorChain = new InterceptorChain();
+  protected final ExecutionListenerChain executionListenerChain = new ExecutionListenerChain();
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
   protected final LanguageDriverRegistry languageRegistry = new LanguageDriverRegistry();
+  protected final StatementMetricsRegistry statementMetricsRegistry = new StatementMetricsRegistry();
 
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection")
       .conflictMessageProducer((savedValue, targetValue) ->
@@ -173,6 +198,10 @@ public class Configuration {
    */
   protected final Map<String, String> cacheRefMap = new HashMap<>();
 
+  // guards the creation of the default thread pools
+  private final ReentrantLock executorsLock = new ReentrantLock();
+  private final List<ExecutorService> defaultExecutors = new ArrayList<>();
+
   public Configuration(Environment environment) {
     this();
     this.environment = environment;
@@ -231,6 +260,69 @@ public class Configuration {
     }
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public Integer getStatementLogSampleRate() {
+    return statementLogSampleRate;
+  }
+
+  /**
+   * Sets the rate of the statements whose JDBC calls are logged when debug logging is enabled for their mapper. With a
+   * rate of <code>n</code>, one statement in <code>n</code> on average is logged.
+   *
+   * @param statementLogSampleRate the sampling rate (null or 1 to log every statement)
+   * @since 3.5.3
+   */
+  public void setStatementLogSampleRate(Integer statementLogSampleRate) {
+    this.statementLogSampleRate = statementLogSampleRate;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getSlowStatementLogThreshold() {
+    return slowStatementLogThreshold;
+  }
+
+  /**
+   * Sets the duration, in milliseconds, from which a statement is logged when debug logging is enabled for its mapper.
+   * When set, the JDBC calls are not logged anymore: a single message with the SQL, the parameters and the duration is
+   * written after the slow statements only.
+   *
+   * @param slowStatementLogThreshold the minimum duration in milliseconds (null to log the JDBC calls of every statement)
+   * @since 3.5.3
+   */
+  public void setSlowStatementLogThreshold(Integer slowStatementLogThreshold) {
+    this.slowStatementLogThreshold = slowStatementLogThreshold;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isStatementMetricsEnabled() {
+    return statementMetricsEnabled;
+  }
+
+  /**
+   * Sets whether the executions of the mapped statements are counted and timed in the
+   * {@link #getStatementMetricsRegistry() statement metrics}.
+   *
+   * @param statementMetricsEnabled true to record statement metrics
+   * @since 3.5.3
+   */
+  public void setStatementMetricsEnabled(boolean statementMetricsEnabled) {
+    this.statementMetricsEnabled = statementMetricsEnabled;
+  }
+
+  /**
+   * @return the metrics of the mapped statements, recorded when statement metrics are enabled
+   * @since 3.5.3
+   */
+  public StatementMetricsRegistry getStatementMetricsRegistry() {
+    return statementMetricsRegistry;
+  }
+
   public Class<? extends VFS> getVfsImpl() {
     return this.vfsImpl;
   }
@@ -266,6 +358,24 @@ public class Configuration {
     this.returnInstanceForEmptyRow = returnEmptyInstance;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public boolean isCompactMapResults() {
+    return compactMapResults;
+  }
+
+  /**
+   * Sets whether rows of a <code>Map</code> result type are returned as {@link org.apache.ibatis.executor.result.RowMap}
+   * instances sharing the keys of the result set, instead of a <code>HashMap</code> per row.
+   *
+   * @param compactMapResults true to return compact row maps
+   * @since 3.5.3
+   */
+  public void setCompactMapResults(boolean compactMapResults) {
+    this.compactMapResults = compactMapResults;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -433,6 +543,279 @@ public class Configuration {
     this.defaultFetchSize = defaultFetchSize;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public Integer getBatchFlushSize() {
+    return batchFlushSize;
+  }
+
+  /**
+   * Sets the number of rows after which the batch executor executes its pending statements while still accepting rows.
+   * The parameter objects of the executed batches are not retained.
+   *
+   * @param batchFlushSize the number of rows per statement batch (null disables auto flushing)
+   * @since 3.5.3
+   */
+  public void setBatchFlushSize(Integer batchFlushSize) {
+    this.batchFlushSize = batchFlushSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getBatchFlushBytes() {
+    return batchFlushBytes;
+  }
+
+  /**
+   * Sets the estimated size of the pending rows of all statements after which the batch executor executes them while
+   * still accepting rows. The size of a row is estimated from its bound parameters: the length of strings and byte
+   * arrays, 8 bytes for other values.
+   *
+   * @param batchFlushBytes the estimated number of bytes of the pending rows (null disables this threshold)
+   * @since 3.5.3
+   */
+  public void setBatchFlushBytes(Integer batchFlushBytes) {
+    this.batchFlushBytes = batchFlushBytes;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isBatchGroupStatements() {
+    return batchGroupStatements;
+  }
+
+  /**
+   * Sets whether the batch executor keeps one open statement per distinct SQL so interleaved statements are still
+   * batched. A statement stops accepting rows once another statement writes to its table, and so do the statements
+   * opened after it, so no row is executed before a row added before it.
+   *
+   * @param batchGroupStatements true to group batched rows by statement
+   * @since 3.5.3
+   */
+  public void setBatchGroupStatements(boolean batchGroupStatements) {
+    this.batchGroupStatements = batchGroupStatements;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getBatchInsertRewriteParameterLimit() {
+    return batchInsertRewriteParameterLimit;
+  }
+
+  /**
+   * Sets the maximum number of parameters of the multi-row inserts the batch executor sends instead of batched
+   * single-row <code>INSERT ... VALUES (...)</code> statements.
+   *
+   * @param batchInsertRewriteParameterLimit the parameter limit of a multi-row insert (null disables the rewriting)
+   * @since 3.5.3
+   */
+  public void setBatchInsertRewriteParameterLimit(Integer batchInsertRewriteParameterLimit) {
+    this.batchInsertRewriteParameterLimit = batchInsertRewriteParameterLimit;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getResultOrderedCheckSize() {
+    return resultOrderedCheckSize;
+  }
+
+  /**
+   * Sets the number of returned objects a row of a <code>resultOrdered</code> cursor with nested result maps is
+   * checked against. A row of an older object is not detected and produces a duplicate, partial object.
+   *
+   * @param resultOrderedCheckSize the number of returned objects checked (0 disables the check)
+   * @since 3.5.3
+   */
+  public void setResultOrderedCheckSize(int resultOrderedCheckSize) {
+    this.resultOrderedCheckSize = resultOrderedCheckSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getNestedSelectBatchSize() {
+    return nestedSelectBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of keys passed to a <code>batchSelect</code> statement at once.
+   *
+   * @param nestedSelectBatchSize the maximum number of keys (null passes all the keys of a result at once)
+   * @since 3.5.3
+   */
+  public void setNestedSelectBatchSize(Integer nestedSelectBatchSize) {
+    this.nestedSelectBatchSize = nestedSelectBatchSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isParallelNestedSelects() {
+    return parallelNestedSelects;
+  }
+
+  /**
+   * Sets whether the eager nested selects of different mappings are executed concurrently, on connections of their
+   * own, once a result has been handled. The nested selects only run concurrently when the session is in auto-commit
+   * mode; they then see the committed data only and do not use the local cache of the session.
+   *
+   * @param parallelNestedSelects true to execute nested selects concurrently
+   * @since 3.5.3
+   */
+  public void setParallelNestedSelects(boolean parallelNestedSelects) {
+    this.parallelNestedSelects = parallelNestedSelects;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getNestedSelectPoolSize() {
+    return nestedSelectPoolSize;
+  }
+
+  /**
+   * Sets the number of threads of the default executor running the concurrent nested selects.
+   *
+   * @param nestedSelectPoolSize the number of threads (null for the number of available processors)
+   * @since 3.5.3
+   */
+  public void setNestedSelectPoolSize(Integer nestedSelectPoolSize) {
+    this.nestedSelectPoolSize = nestedSelectPoolSize;
+  }
+
+  /**
+   * Gets the executor running the concurrent nested selects. A fixed pool of <code>nestedSelectPoolSize</code> daemon
+   * threads is created on first use if none was set, and is shut down by {@link #shutdownExecutors()}.
+   *
+   * @return the executor for the concurrent nested selects
+   * @since 3.5.3
+   */
+  public ExecutorService getNestedSelectExecutor() {
+    ExecutorService executor = nestedSelectExecutor;
+    if (executor == null) {
+      executorsLock.lock();
+      try {
+        if (nestedSelectExecutor == null) {
+          nestedSelectExecutor = newDefaultExecutor(nestedSelectPoolSize, "mybatis-nested-select-");
+        }
+        executor = nestedSelectExecutor;
+      } finally {
+        executorsLock.unlock();
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Sets the executor running the concurrent nested selects. The caller owns the executor and shuts it down.
+   *
+   * @param nestedSelectExecutor the executor for the concurrent nested selects
+   * @since 3.5.3
+   */
+  public void setNestedSelectExecutor(ExecutorService nestedSelectExecutor) {
+    this.nestedSelectExecutor = nestedSelectExecutor;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getAsyncPoolSize() {
+    return asyncPoolSize;
+  }
+
+  /**
+   * Sets the number of threads of the default executor running the mapper methods that return a
+   * <code>CompletableFuture</code>.
+   *
+   * @param asyncPoolSize the number of threads (null for the number of available processors)
+   * @since 3.5.3
+   */
+  public void setAsyncPoolSize(Integer asyncPoolSize) {
+    this.asyncPoolSize = asyncPoolSize;
+  }
+
+  /**
+   * Gets the executor running the mapper methods that return a <code>CompletableFuture</code>. A fixed pool of
+   * <code>asyncPoolSize</code> daemon threads is created on first use if none was set, and is shut down by
+   * {@link #shutdownExecutors()}. The type is an
+   * <code>ExecutorService</code>, which does not clash with the MyBatis {@link Executor}.
+   *
+   * @return the executor for asynchronous mapper methods
+   * @since 3.5.3
+   */
+  public ExecutorService getAsyncExecutor() {
+    ExecutorService executor = asyncExecutor;
+    if (executor == null) {
+      executorsLock.lock();
+      try {
+        if (asyncExecutor == null) {
+          asyncExecutor = newDefaultExecutor(asyncPoolSize, "mybatis-async-");
+        }
+        executor = asyncExecutor;
+      } finally {
+        executorsLock.unlock();
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Sets the executor running the mapper methods that return a <code>CompletableFuture</code>. The caller owns the
+   * executor and shuts it down.
+   *
+   * @param asyncExecutor the executor for asynchronous mapper methods
+   * @since 3.5.3
+   */
+  public void setAsyncExecutor(ExecutorService asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
+  /**
+   * Shuts down the thread pools this configuration created on first use because no executor was set. Executors set
+   * with the setters are left to the caller. Call it when the application stops using the
+   * <code>SqlSessionFactory</code>; a later call needing a pool creates a new one.
+   *
+   * @since 3.5.3
+   */
+  public void shutdownExecutors() {
+    executorsLock.lock();
+    try {
+      for (ExecutorService executor : defaultExecutors) {
+        executor.shutdown();
+      }
+      if (defaultExecutors.contains(nestedSelectExecutor)) {
+        nestedSelectExecutor = null;
+      }
+      if (defaultExecutors.contains(asyncExecutor)) {
+        asyncExecutor = null;
+      }
+      defaultExecutors.clear();
+    } finally {
+      executorsLock.unlock();
+    }
+  }
+
+  private ExecutorService newDefaultExecutor(Integer poolSize, String threadNamePrefix) {
+    ExecutorService executor = newDaemonThreadPool(poolSize, threadNamePrefix);
+    defaultExecutors.add(executor);
+    return executor;
+  }
+
+  private static ExecutorService newDaemonThreadPool(Integer poolSize, String threadNamePrefix) {
+    AtomicInteger threadNumber = new AtomicInteger();
+    return Executors.newFixedThreadPool(poolSize == null ? Runtime.getRuntime().availableProcessors() : poolSize,
+        runnable -> {
+          Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
   /**
    * @since 3.5.2
    */
@@ -537,6 +920,21 @@ public class Configuration {
     return interceptorChain.getInterceptors();
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public List<ExecutionListener> getExecutionListeners() {
+    return executionListenerChain.getListeners();
+  }
+
+  /**
+   * @return the listener notified of the statement executions, null if no listener is registered
+   * @since 3.5.3
+   */
+  public ExecutionListener getExecutionListener() {
+    return executionListenerChain.getListener();
+  }
+
   public LanguageDriverRegistry getLanguageRegistry() {
     return languageRegistry;
   }
@@ -763,6 +1161,13 @@ public class Configuration {
     interceptorChain.addInterceptor(interceptor);
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public void addExecutionListener(ExecutionListener listener) {
+    executionListenerChain.addListener(listener);
+  }
+
   public void addMappers(String packageName, Class<?> superType) {
     mapperRegistry.addMappers(packageName, superType);
   }
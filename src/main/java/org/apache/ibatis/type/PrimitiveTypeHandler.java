@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A type handler that can read a column as an <code>int</code>, a <code>long</code> or a <code>double</code> without
+ * boxing it. It is used to map columns to primitive properties of the same type. A handler implements the
+ * specialization of the primitive type it reads: {@link OfInt}, {@link OfLong} or {@link OfDouble}.
+ * <p>
+ * Like the JDBC getters, the read methods return <code>0</code> for SQL NULL, the caller checks
+ * {@link ResultSet#wasNull()}.
+ * </p>
+ *
+ * @since 3.5.3
+ */
+public interface PrimitiveTypeHandler {
+
+  /**
+   * Returns the primitive type read by this handler.
+   *
+   * @return the primitive type of the specialization implemented by this handler, or <code>null</code> if values
+   *         should be read through {@link TypeHandler#getResult(ResultSet, String)}
+   */
+  Class<?> getPrimitiveType();
+
+  /**
+   * A handler reading <code>int</code> values.
+   */
+  interface OfInt extends PrimitiveTypeHandler {
+    int getIntResult(ResultSet rs, int columnIndex) throws SQLException;
+  }
+
+  /**
+   * A handler reading <code>long</code> values.
+   */
+  interface OfLong extends PrimitiveTypeHandler {
+    long getLongResult(ResultSet rs, int columnIndex) throws SQLException;
+  }
+
+  /**
+   * A handler reading <code>double</code> values.
+   */
+  interface OfDouble extends PrimitiveTypeHandler {
+    double getDoubleResult(ResultSet rs, int columnIndex) throws SQLException;
+  }
+
+}
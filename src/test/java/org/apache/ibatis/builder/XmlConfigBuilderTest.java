@@ -88,6 +88,15 @@ class XmlConfigBuilderTest {
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
       assertNull(config.getDefaultResultSetType());
+      assertNull(config.getBatchFlushSize());
+      assertNull(config.getBatchFlushBytes());
+      assertThat(config.isBatchGroupStatements()).isFalse();
+      assertNull(config.getBatchInsertRewriteParameterLimit());
+      assertNull(config.getNestedSelectBatchSize());
+      assertThat(config.isParallelNestedSelects()).isFalse();
+      assertNull(config.getNestedSelectPoolSize());
+      assertNull(config.getAsyncPoolSize());
+      assertThat(config.getResultOrderedCheckSize()).isEqualTo(1024);
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.SESSION);
@@ -96,7 +105,11 @@ class XmlConfigBuilderTest {
       assertThat(config.isSafeResultHandlerEnabled()).isTrue();
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(XMLLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isFalse();
+      assertThat(config.isCompactMapResults()).isFalse();
       assertNull(config.getLogPrefix());
+      assertNull(config.getStatementLogSampleRate());
+      assertNull(config.getSlowStatementLogThreshold());
+      assertThat(config.isStatementMetricsEnabled()).isFalse();
       assertNull(config.getLogImpl());
       assertNull(config.getConfigurationFactory());
       assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
@@ -182,6 +195,15 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
       assertThat(config.getDefaultFetchSize()).isEqualTo(100);
       assertThat(config.getDefaultResultSetType()).isEqualTo(ResultSetType.SCROLL_INSENSITIVE);
+      assertThat(config.getBatchFlushSize()).isEqualTo(1000);
+      assertThat(config.getBatchFlushBytes()).isEqualTo(1048576);
+      assertThat(config.isBatchGroupStatements()).isTrue();
+      assertThat(config.getBatchInsertRewriteParameterLimit()).isEqualTo(2000);
+      assertThat(config.getNestedSelectBatchSize()).isEqualTo(500);
+      assertThat(config.isParallelNestedSelects()).isTrue();
+      assertThat(config.getNestedSelectPoolSize()).isEqualTo(3);
+      assertThat(config.getAsyncPoolSize()).isEqualTo(4);
+      assertThat(config.getResultOrderedCheckSize()).isEqualTo(2048);
       assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
       assertThat(config.isSafeRowBoundsEnabled()).isTrue();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.STATEMENT);
@@ -190,7 +212,11 @@ class XmlConfigBuilderTest {
       assertThat(config.isSafeResultHandlerEnabled()).isFalse();
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(RawLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isTrue();
+      assertThat(config.isCompactMapResults()).isTrue();
       assertThat(config.getLogPrefix()).isEqualTo("mybatis_");
+      assertThat(config.getStatementLogSampleRate()).isEqualTo(10);
+      assertThat(config.getSlowStatementLogThreshold()).isEqualTo(500);
+      assertThat(config.isStatementMetricsEnabled()).isTrue();
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
       assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
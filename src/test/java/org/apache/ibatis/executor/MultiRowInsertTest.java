@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  @Test
+  void shouldRepeatValuesGroup() {
+    MultiRowInsert insert = MultiRowInsert.parse("insert into t (a, b) values (?, upper(?))", 2, 5);
+    assertNotNull(insert);
+    assertEquals(2, insert.getRowsPerStatement());
+    assertEquals("insert into t (a, b) values (?, upper(?)), (?, upper(?))", insert.getSql(2));
+  }
+
+  @Test
+  void shouldIgnoreQuotedText() {
+    MultiRowInsert insert = MultiRowInsert.parse("INSERT INTO t (a, b) VALUES ('values (?)', ?);", 1, 10);
+    assertNotNull(insert);
+    assertEquals("INSERT INTO t (a, b) VALUES ('values (?)', ?), ('values (?)', ?)", insert.getSql(2));
+  }
+
+  @Test
+  void shouldNotRewriteUnsupportedInserts() {
+    assertNull(MultiRowInsert.parse("insert into t (a) select a from s where id = ?", 1, 10));
+    assertNull(MultiRowInsert.parse("insert into t (a) values (?), (?)", 2, 10));
+    assertNull(MultiRowInsert.parse("insert into t (a) values (?) on duplicate key update a = ?", 2, 10));
+    assertNull(MultiRowInsert.parse("insert into t (a) values (?) returning id", 1, 10));
+    assertNull(MultiRowInsert.parse("insert into values_log (a) values (?)", 2, 10));
+  }
+
+}
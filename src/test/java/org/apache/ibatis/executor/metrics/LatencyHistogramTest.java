@@ -0,0 +1,78 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldReportZeroWhenEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertThat(histogram.getCount()).isZero();
+    assertThat(histogram.getMean()).isZero();
+    assertThat(histogram.getPercentile(99.0)).isZero();
+  }
+
+  @Test
+  void shouldReportPercentilesWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10000; value++) {
+      histogram.record(value);
+    }
+    assertThat(histogram.getCount()).isEqualTo(10000);
+    assertThat(histogram.getMax()).isEqualTo(10000);
+    assertThat(histogram.getMean()).isEqualTo(5000.5);
+    assertThat(histogram.getPercentile(50.0)).isBetween(5000L, 5000L * 107 / 100);
+    assertThat(histogram.getPercentile(99.0)).isBetween(9900L, 10000L);
+    assertThat(histogram.getPercentile(100.0)).isEqualTo(10000);
+    assertThat(histogram.getPercentile(0.0)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldMapEveryValueToTheBucketHoldingIt() {
+    for (long value = 0; value < 1 << 20; value += 7) {
+      int index = LatencyHistogram.indexOf(value);
+      assertThat(LatencyHistogram.highestValueOf(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(LatencyHistogram.highestValueOf(index - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  void shouldClampHugeAndNegativeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    assertThat(histogram.getCount()).isEqualTo(2);
+    assertThat(histogram.getPercentile(50.0)).isZero();
+    assertThat(histogram.getPercentile(100.0)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void shouldReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(42);
+    histogram.reset();
+    assertThat(histogram.getCount()).isZero();
+    assertThat(histogram.getMax()).isZero();
+    assertThat(histogram.getPercentile(50.0)).isZero();
+  }
+
+}
@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RowMapTest {
+
+  private final RowMap.Schema schema = new RowMap.Schema(Arrays.asList("ID", "NAME", "ID", "EMAIL"));
+
+  @Test
+  void shouldBehaveLikeHashMap() {
+    RowMap row = new RowMap(schema);
+    Map<String, Object> expected = new HashMap<>();
+    assertEquals(expected, row);
+    assertTrue(row.isEmpty());
+
+    assertNull(row.put("NAME", "Alice"));
+    assertNull(row.put("ID", 1));
+    assertNull(row.put("EMAIL", null));
+    assertNull(row.put("other", "x"));
+    expected.put("NAME", "Alice");
+    expected.put("ID", 1);
+    expected.put("EMAIL", null);
+    expected.put("other", "x");
+    assertEquals(expected, row);
+    assertEquals(row, expected);
+    assertEquals(expected.hashCode(), row.hashCode());
+    assertEquals(4, row.size());
+    assertTrue(row.containsKey("EMAIL"));
+    assertFalse(row.containsKey("missing"));
+    assertTrue(row.containsValue("x"));
+
+    assertEquals("Alice", row.put("NAME", "Bob"));
+    assertEquals("Bob", row.remove("NAME"));
+    assertNull(row.remove("NAME"));
+    assertEquals("x", row.remove("other"));
+    assertEquals(2, row.size());
+    assertFalse(row.containsKey("NAME"));
+    assertNull(row.get("NAME"));
+
+    row.clear();
+    assertTrue(row.isEmpty());
+  }
+
+  @Test
+  void shouldIterateSchemaKeysInOrderThenOtherKeys() {
+    RowMap row = new RowMap(schema);
+    row.put("other", "x");
+    row.put("EMAIL", "a@b");
+    row.put("ID", 1);
+    assertEquals(Arrays.asList("ID", "EMAIL", "other"), new ArrayList<>(row.keySet()));
+    assertEquals("{ID=1, EMAIL=a@b, other=x}", row.toString());
+  }
+
+  @Test
+  void shouldRemoveAndUpdateThroughEntries() {
+    RowMap row = new RowMap(schema);
+    row.put("ID", 1);
+    row.put("NAME", "Alice");
+    row.put("other", "x");
+    Iterator<Map.Entry<String, Object>> iterator = row.entrySet().iterator();
+    Map.Entry<String, Object> id = iterator.next();
+    assertEquals(1, id.setValue(2));
+    assertEquals(2, row.get("ID"));
+    iterator.next();
+    iterator.remove();
+    iterator.next();
+    iterator.remove();
+    assertFalse(iterator.hasNext());
+    assertEquals(1, row.size());
+    assertEquals("{ID=2}", row.toString());
+  }
+
+  @Test
+  void shouldRemoveLastSchemaEntryAfterHasNext() {
+    RowMap row = new RowMap(schema);
+    row.put("ID", 1);
+    row.put("other", "x");
+    Iterator<Map.Entry<String, Object>> iterator = row.entrySet().iterator();
+    assertEquals("ID", iterator.next().getKey());
+    assertTrue(iterator.hasNext());
+    iterator.remove();
+    assertThrows(IllegalStateException.class, iterator::remove);
+    assertEquals("other", iterator.next().getKey());
+    assertFalse(iterator.hasNext());
+    assertEquals("{other=x}", row.toString());
+  }
+
+  @Test
+  void shouldBeSerializable() throws Exception {
+    RowMap row = new RowMap(schema);
+    row.put("ID", 1);
+    row.put("other", "x");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(row);
+    }
+    RowMap copy;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (RowMap) in.readObject();
+    }
+    assertEquals(row, copy);
+    assertFalse(copy.containsKey("NAME"));
+    assertEquals(2, copy.size());
+  }
+
+}
@@ -0,0 +1,110 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.junit.jupiter.api.Test;
+
+class RowKeyTest {
+
+  @Test
+  void shouldReadSingleIntIdWithoutBoxing() throws Exception {
+    RowKey.Columns columns = new RowKey.Builder().add("ID", 1, new IntegerTypeHandler(), false).build();
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getInt(1)).thenReturn(7, 7, 8, 0);
+    when(rs.wasNull()).thenReturn(true);
+
+    RowKey key = columns.read(rs);
+    RowKey sameKey = columns.read(rs);
+    assertEquals(key, sameKey);
+    assertEquals(key.hashCode(), sameKey.hashCode());
+    assertNotEquals(key, columns.read(rs));
+    assertSame(RowKey.NULL, columns.read(rs));
+    verify(rs, never()).getInt("ID");
+  }
+
+  @Test
+  void shouldCombineKeysWithParent() throws Exception {
+    RowKey.Columns parentColumns = new RowKey.Builder().add("ID", 1, new IntegerTypeHandler(), false).build();
+    RowKey.Columns columns = new RowKey.Builder().add("POST_ID", 2, new IntegerTypeHandler(), false).build();
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getInt(1)).thenReturn(1, 2);
+    when(rs.getInt(2)).thenReturn(5);
+    RowKey parent1 = parentColumns.read(rs);
+    RowKey parent2 = parentColumns.read(rs);
+    RowKey child = columns.read(rs);
+
+    assertEquals(child.combine(parent1), child.combine(parent1));
+    assertEquals(child.combine(parent1).hashCode(), child.combine(parent1).hashCode());
+    assertNotEquals(child.combine(parent1), child.combine(parent2));
+    assertNotEquals(child, child.combine(parent1));
+    assertSame(RowKey.NULL, child.combine(RowKey.NULL));
+    assertSame(RowKey.NULL, RowKey.NULL.combine(parent1));
+  }
+
+  @Test
+  void shouldCompareSeveralColumns() throws Exception {
+    RowKey.Columns columns = new RowKey.Builder()
+        .add("FIRST_NAME", 1, new StringTypeHandler(), false)
+        .add("LAST_NAME", 2, new StringTypeHandler(), false)
+        .build();
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("FIRST_NAME")).thenReturn("John", "John", null, null);
+    when(rs.getString("LAST_NAME")).thenReturn("Doe", "Doe", "Doe", null);
+
+    RowKey key = columns.read(rs);
+    RowKey sameKey = columns.read(rs);
+    assertEquals(key, sameKey);
+    assertEquals(key.hashCode(), sameKey.hashCode());
+    assertNotEquals(key, columns.read(rs));
+    assertSame(RowKey.NULL, columns.read(rs));
+  }
+
+  @Test
+  void shouldKeepNullValuesOfNullableColumns() throws Exception {
+    RowKey.Columns columns = new RowKey.Builder().add("ID", 1, new IntegerTypeHandler(), true).build();
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getInt(1)).thenReturn(0);
+    when(rs.wasNull()).thenReturn(true);
+
+    RowKey key = columns.read(rs);
+    assertNotEquals(RowKey.NULL, key);
+    assertEquals(key, columns.read(rs));
+  }
+
+  @Test
+  void shouldNotEqualKeysOfOtherColumns() throws Exception {
+    RowKey.Columns columns = new RowKey.Builder().add("ID", 1, null, false).build();
+    RowKey.Columns prefixedColumns = new RowKey.Builder().add("A_ID", 1, null, false).build();
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString(1)).thenReturn("1");
+
+    assertEquals(columns.read(rs), columns.read(rs));
+    assertNotEquals(columns.read(rs), prefixedColumns.read(rs));
+  }
+
+}
@@ -24,6 +24,8 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.BaseDataTest;
@@ -91,6 +93,133 @@ class PooledDataSourceTest extends BaseDataTest {
     c.close();
   }
 
+  @Test
+  void shouldReuseCachedStatementAcrossCheckouts() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolStatementCacheSize(2);
+      PreparedStatement real;
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st = c.prepareStatement("select 1 from (values(0))");
+        real = st.unwrap(PreparedStatement.class);
+        assertSame(c, st.getConnection());
+        st.setFetchSize(100);
+        st.close();
+        assertTrue(st.isClosed());
+        assertThrows(SQLException.class, st::executeQuery);
+      }
+      try (Connection c = ds.getConnection();
+           PreparedStatement st = c.prepareStatement("select 1 from (values(0))")) {
+        assertSame(real, st.unwrap(PreparedStatement.class));
+        assertFalse(real.isClosed());
+        assertEquals(0, st.getFetchSize());
+        exexuteQuery(st);
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldResetCachedStatementState() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolStatementCacheSize(2);
+      PreparedStatement real;
+      ResultSet leftOpen;
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st = c.prepareStatement("select 1 from (values(0))");
+        real = st.unwrap(PreparedStatement.class);
+        st.setMaxFieldSize(10);
+        st.setMaxRows(1);
+        st.setPoolable(false);
+        leftOpen = st.executeQuery();
+        st.close();
+      }
+      assertTrue(leftOpen.isClosed());
+      try (Connection c = ds.getConnection();
+           PreparedStatement st = c.prepareStatement("select 1 from (values(0))")) {
+        assertSame(real, st.unwrap(PreparedStatement.class));
+        assertEquals(0, st.getMaxFieldSize());
+        assertEquals(0, st.getMaxRows());
+        assertTrue(st.isPoolable());
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotShareCachedStatementInUse() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolStatementCacheSize(2);
+      try (Connection c = ds.getConnection();
+           PreparedStatement st1 = c.prepareStatement("select 1 from (values(0))");
+           PreparedStatement st2 = c.prepareStatement("select 1 from (values(0))");
+           PreparedStatement st3 = c.prepareStatement("select 1 from (values(0))", ResultSet.TYPE_SCROLL_INSENSITIVE,
+               ResultSet.CONCUR_READ_ONLY)) {
+        assertNotSame(st1.unwrap(PreparedStatement.class), st2.unwrap(PreparedStatement.class));
+        assertNotSame(st1.unwrap(PreparedStatement.class), st3.unwrap(PreparedStatement.class));
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseEvictedStatements() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolStatementCacheSize(1);
+      PreparedStatement evicted;
+      PreparedStatement cached;
+      try (Connection c = ds.getConnection()) {
+        try (PreparedStatement st = c.prepareStatement("select 1 from (values(0))")) {
+          evicted = st.unwrap(PreparedStatement.class);
+        }
+        try (PreparedStatement st = c.prepareStatement("select 2 from (values(0))")) {
+          cached = st.unwrap(PreparedStatement.class);
+        }
+      }
+      assertTrue(evicted.isClosed());
+      assertFalse(cached.isClosed());
+      ds.forceCloseAll();
+      assertTrue(cached.isClosed());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldWakeUpWaitingThreadWhenConnectionIsReturned() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolMaximumCheckoutTime(60000);
+      ds.setPoolTimeToWait(60000);
+      Connection held = ds.getConnection();
+      CompletableFuture<Long> waited = CompletableFuture.supplyAsync(() -> {
+        long start = System.currentTimeMillis();
+        try (Connection c = ds.getConnection()) {
+          return System.currentTimeMillis() - start;
+        } catch (SQLException e) {
+          throw new CompletionException(e);
+        }
+      });
+      while (ds.getPoolState().getHadToWaitCount() == 0) {
+        Thread.sleep(10);
+      }
+      held.close();
+      assertTrue(waited.get(10, TimeUnit.SECONDS) < 10000);
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
   @Disabled("See the comments")
   @Test
   void shouldReconnectWhenServerKilledLeakedConnection() throws Exception {
@@ -137,8 +266,13 @@ class PooledDataSourceTest extends BaseDataTest {
   }
 
   private void exexuteQuery(Connection con) throws SQLException {
-    try (PreparedStatement st = con.prepareStatement("select 1");
-         ResultSet rs = st.executeQuery()) {
+    try (PreparedStatement st = con.prepareStatement("select 1")) {
+      exexuteQuery(st);
+    }
+  }
+
+  private void exexuteQuery(PreparedStatement st) throws SQLException {
+    try (ResultSet rs = st.executeQuery()) {
       while (rs.next()) {
         assertEquals(1, rs.getInt(1));
       }
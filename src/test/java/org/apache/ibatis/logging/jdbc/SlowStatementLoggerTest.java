@@ -0,0 +1,76 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SlowStatementLoggerTest {
+
+  @Mock
+  Log log;
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldLogSqlParametersAndDuration() {
+    when(log.isDebugEnabled()).thenReturn(true);
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("id", 1);
+    parameter.put("name", "foo");
+    BoundSql boundSql = new BoundSql(configuration, "select *\n  from users where id = ? and name = ?",
+        Arrays.asList(new ParameterMapping.Builder(configuration, "id", Integer.class).build(),
+            new ParameterMapping.Builder(configuration, "name", String.class).build()),
+        parameter);
+    SlowStatementLogger.log(log, configuration, boundSql, parameter, 120, 1);
+    verify(log).debug(
+        "==>       Slow: 120 ms, select * from users where id = ? and name = ? | Parameters: 1(Integer), foo(String)");
+  }
+
+  @Test
+  void shouldLogSimpleParameterObject() {
+    when(log.isDebugEnabled()).thenReturn(true);
+    BoundSql boundSql = new BoundSql(configuration, "delete from users where id = ?",
+        Collections.singletonList(new ParameterMapping.Builder(configuration, "id", Integer.class).build()), 3);
+    SlowStatementLogger.log(log, configuration, boundSql, 3, 1500, 1);
+    verify(log).debug("==>       Slow: 1500 ms, delete from users where id = ? | Parameters: 3(Integer)");
+  }
+
+  @Test
+  void shouldNotLogWhenDebugIsDisabled() {
+    BoundSql boundSql = new BoundSql(configuration, "select 1", Collections.emptyList(), null);
+    SlowStatementLogger.log(log, configuration, boundSql, null, 1500, 1);
+    verify(log, never()).debug(anyString());
+  }
+
+}
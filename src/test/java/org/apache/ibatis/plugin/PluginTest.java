@@ -17,7 +17,9 @@ package org.apache.ibatis.plugin;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +40,30 @@ class PluginTest {
     assertNotEquals("Always", map.toString());
   }
 
+  @Test
+  void shouldReuseProxyClassForSameTargetClass() {
+    Interceptor plugin = new AlwaysMapPlugin();
+    Map first = (Map) plugin.plugin(new HashMap());
+    Map second = (Map) plugin.plugin(new HashMap());
+    assertNotSame(first, second);
+    assertSame(first.getClass(), second.getClass());
+    assertEquals("Always", second.get("Anything"));
+  }
+
+  @Test
+  void shouldNotWrapTargetWithoutInterceptedInterface() {
+    List list = new ArrayList();
+    assertSame(list, new AlwaysMapPlugin().plugin(list));
+    assertSame(list, new AlwaysMapPlugin().plugin(list));
+  }
+
+  @Test
+  void shouldRejectInterceptorWithoutAnnotation() {
+    Interceptor interceptor = invocation -> null;
+    assertThrows(PluginException.class, () -> interceptor.plugin(new HashMap()));
+    assertThrows(PluginException.class, () -> interceptor.plugin(new HashMap()));
+  }
+
   @Intercepts({
       @Signature(type = Map.class, method = "get", args = {Object.class})})
   public static class AlwaysMapPlugin implements Interceptor {
@@ -300,4 +300,43 @@ class MetaObjectTest {
     assertTrue(meta.hasGetter("filterParams[2]"));
   }
 
+  @Test
+  void shouldGetDeeplyNestedValuesThroughBeansMapsAndLists() {
+    RichType rich = new RichType();
+    RichType child = new RichType();
+    RichType grandChild = new RichType();
+    grandChild.setRichProperty("foo");
+    child.setRichType(grandChild);
+    child.getRichMap().put("key", grandChild);
+    child.getRichList().add(grandChild);
+    rich.setRichType(child);
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    assertEquals("foo", meta.getValue("richType.richType.richProperty"));
+    assertEquals("foo", meta.getValue("richType.richMap.key.richProperty"));
+    assertEquals("foo", meta.getValue("richType.richMap[key].richProperty"));
+    assertEquals("foo", meta.getValue("richType.richList[1].richProperty"));
+    assertNull(meta.getValue("richType.richType.richType.richProperty"));
+  }
+
+  @Test
+  void shouldReportMissingGetterOfNestedBean() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    ReflectionException e = assertThrows(ReflectionException.class, () -> meta.getValue("richType.unknown"));
+    assertTrue(e.getMessage().contains("unknown"));
+  }
+
+  @Test
+  void shouldInstantiateNestedBeansOnlyWhenSettingNonNullValue() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue("richType.richType.richProperty", null);
+    assertNull(rich.getRichType());
+    meta.setValue("richType.richType.richProperty", "foo");
+    assertEquals("foo", rich.getRichType().getRichType().getRichProperty());
+    meta.setValue("richType.richType.richProperty", "bar");
+    assertEquals("bar", meta.getValue("richType.richType.richProperty"));
+  }
+
 }
@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class ParamNameResolverTest {
+
+  interface Mapper {
+    void single(Integer id);
+
+    void singleNamed(@Param("id") Integer id);
+
+    void multiple(Integer a, RowBounds rowBounds, String b);
+
+    void genericNameTaken(@Param("param2") String a, @Param("b") String b);
+  }
+
+  @Test
+  void shouldReturnSingleParameterWithoutMap() throws Exception {
+    ParamNameResolver resolver = resolver("single", Integer.class);
+    assertEquals(7, resolver.getNamedParams(new Object[] { 7 }));
+    assertNull(resolver.getNamedParams(null));
+  }
+
+  @Test
+  void shouldNameAnnotatedSingleParameter() throws Exception {
+    Map<?, ?> params = (Map<?, ?>) resolver("singleNamed", Integer.class).getNamedParams(new Object[] { 7 });
+    assertEquals(2, params.size());
+    assertEquals(7, params.get("id"));
+    assertEquals(7, params.get("param1"));
+  }
+
+  @Test
+  void shouldSkipSpecialParameters() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setUseActualParamName(false);
+    Method method = Mapper.class.getMethod("multiple", Integer.class, RowBounds.class, String.class);
+    Map<?, ?> params = (Map<?, ?>) new ParamNameResolver(configuration, method)
+        .getNamedParams(new Object[] { 1, RowBounds.DEFAULT, "b" });
+    assertEquals(4, params.size());
+    assertEquals(1, params.get("0"));
+    assertEquals("b", params.get("1"));
+    assertEquals(1, params.get("param1"));
+    assertEquals("b", params.get("param2"));
+  }
+
+  @Test
+  void shouldNotOverwriteParamNamedLikeGenericName() throws Exception {
+    Map<?, ?> params = (Map<?, ?>) resolver("genericNameTaken", String.class, String.class)
+        .getNamedParams(new Object[] { "a", "b" });
+    assertEquals(3, params.size());
+    assertEquals("a", params.get("param2"));
+    assertEquals("a", params.get("param1"));
+    assertEquals("b", params.get("b"));
+  }
+
+  @Test
+  void shouldFailOnUnknownParameterButAllowNullValues() throws Exception {
+    Map<?, ?> params = (Map<?, ?>) resolver("singleNamed", Integer.class).getNamedParams(new Object[] { null });
+    assertNull(params.get("id"));
+    assertThrows(BindingException.class, () -> params.get("unknown"));
+  }
+
+  private ParamNameResolver resolver(String methodName, Class<?>... parameterTypes) throws Exception {
+    return new ParamNameResolver(new Configuration(), Mapper.class.getMethod(methodName, parameterTypes));
+  }
+
+}
@@ -18,10 +18,12 @@ package org.apache.ibatis.reflection;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.PrimitiveSetInvoker;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -322,4 +324,80 @@ class ReflectorTest {
             "Ambiguous setters defined for property 'bool' in class '" + Bean.class.getName().replace("$", "\\$")
                 + "' with types '(java.lang.Integer|boolean)' and '(java.lang.Integer|boolean)'\\.");
   }
+
+  @Test
+  void shouldInvokeGettersAndSettersOfAnyVisibility() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private int count;
+      private String name;
+      private int getCount() {return count;}
+      private void setCount(int count) {this.count = count;}
+      String getName() {return name;}
+      void setName(String name) {this.name = name;}
+    }
+    Reflector reflector = new DefaultReflectorFactory().findForClass(Bean.class);
+    Bean bean = new Bean();
+    for (int i = 0; i < 2; i++) {
+      reflector.getSetInvoker("count").invoke(bean, new Object[] { 3 + i });
+      reflector.getSetInvoker("name").invoke(bean, new Object[] { "name" + i });
+      assertEquals(3 + i, reflector.getGetInvoker("count").invoke(bean, new Object[0]));
+      assertEquals("name" + i, reflector.getGetInvoker("name").invoke(bean, null));
+    }
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { null });
+    assertNull(bean.name);
+  }
+
+  @Test
+  void shouldReportInvalidArgumentsAndExceptionsLikeReflection() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private long id;
+      public long getId() {return id;}
+      public void setId(long id) {this.id = id;}
+      public String getFailing() {throw new IllegalStateException("failing");}
+    }
+    Reflector reflector = new DefaultReflectorFactory().findForClass(Bean.class);
+    Bean bean = new Bean();
+    Invoker setter = reflector.getSetInvoker("id");
+    // widening conversion done by Method.invoke
+    setter.invoke(bean, new Object[] { 5 });
+    assertEquals(5L, bean.id);
+    assertThrows(IllegalArgumentException.class, () -> setter.invoke(bean, new Object[] { null }));
+    assertThrows(IllegalArgumentException.class, () -> setter.invoke(bean, new Object[] { "5" }));
+    assertThrows(IllegalArgumentException.class, () -> setter.invoke(new Object(), new Object[] { 5L }));
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> reflector.getGetInvoker("failing").invoke(bean, null));
+    assertEquals("failing", e.getCause().getMessage());
+  }
+
+  @Test
+  void shouldSetPrimitivesWithoutBoxing() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private int count;
+      private long total;
+      private double ratio;
+      private void setCount(int count) {this.count = count;}
+      public void setTotal(long total) {this.total = total;}
+    }
+    Reflector reflector = new DefaultReflectorFactory().findForClass(Bean.class);
+    Bean bean = new Bean();
+    PrimitiveSetInvoker count = (PrimitiveSetInvoker) reflector.getSetInvoker("count");
+    PrimitiveSetInvoker total = (PrimitiveSetInvoker) reflector.getSetInvoker("total");
+    PrimitiveSetInvoker ratio = (PrimitiveSetInvoker) reflector.getSetInvoker("ratio");
+    for (int i = 0; i < 2; i++) {
+      count.setInt(bean, 3 + i);
+      total.setLong(bean, 3000000000L + i);
+      ratio.setDouble(bean, 0.5 + i);
+      assertEquals(3 + i, bean.count);
+      assertEquals(3000000000L + i, bean.total);
+      assertEquals(0.5 + i, bean.ratio);
+    }
+    // widening conversion done by Method.invoke
+    total.setInt(bean, 5);
+    assertEquals(5L, bean.total);
+    assertThrows(IllegalArgumentException.class, () -> count.setDouble(bean, 0.5));
+    assertThrows(IllegalArgumentException.class, () -> total.setLong(new Object(), 5L));
+  }
 }
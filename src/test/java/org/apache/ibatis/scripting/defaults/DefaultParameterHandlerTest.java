@@ -17,13 +17,18 @@ package org.apache.ibatis.scripting.defaults;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.mapping.*;
+import org.apache.ibatis.reflection.ReflectionException;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
@@ -36,6 +41,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +76,95 @@ class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  void setParametersFromBeanProperties() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final Item item = new Item();
+    item.setId(7);
+    item.setName("seven");
+    item.setChild(new Item());
+    item.getChild().setName("child");
+    final BoundSql boundSql = new BoundSql(config, "insert", Arrays.asList(
+        parameterMapping(config, "id", Integer.class), parameterMapping(config, "name", String.class),
+        parameterMapping(config, "child.name", String.class), parameterMapping(config, "extra", String.class)), item);
+    boundSql.setAdditionalParameter("extra", "additional");
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, item, boundSql).setParameters(ps);
+    verify(ps).setInt(1, 7);
+    verify(ps).setString(2, "seven");
+    verify(ps).setString(3, "child");
+    verify(ps).setString(4, "additional");
+  }
+
+  @Test
+  void setParametersFromMapEntries() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final ParamMap<Object> param = new ParamMap<>();
+    param.put("id", 7);
+    param.put("name", null);
+    final BoundSql boundSql = new BoundSql(config, "insert", Arrays.asList(
+        parameterMapping(config, "id", Integer.class), parameterMapping(config, "name", String.class)), param);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, param, boundSql).setParameters(ps);
+    verify(ps).setInt(1, 7);
+    verify(ps).setNull(2, Types.OTHER);
+
+    final BoundSql unknown = new BoundSql(config, "insert",
+        Collections.singletonList(parameterMapping(config, "missing", String.class)), param);
+    Assertions.assertThrows(BindingException.class,
+        () -> new DefaultParameterHandler(mappedStatement, param, unknown).setParameters(ps));
+  }
+
+  @Test
+  void setParametersFailsOnUnknownBeanProperty() {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final BoundSql boundSql = new BoundSql(config, "insert",
+        Collections.singletonList(parameterMapping(config, "missing", String.class)), new Item());
+
+    ReflectionException e = Assertions.assertThrows(ReflectionException.class,
+        () -> new DefaultParameterHandler(mappedStatement, new Item(), boundSql).setParameters(mock(PreparedStatement.class)));
+    Assertions.assertTrue(e.getMessage().contains("There is no getter for property named 'missing'"));
+  }
+
+  private ParameterMapping parameterMapping(Configuration config, String property, Class<?> javaType) {
+    return new ParameterMapping.Builder(config, property, config.getTypeHandlerRegistry().getTypeHandler(javaType)).build();
+  }
+
+  public static class Item {
+    private Integer id;
+    private String name;
+    private Item child;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Item getChild() {
+      return child;
+    }
+
+    public void setChild(Item child) {
+      this.child = child;
+    }
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncMapperTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_mapper/CreateDB.sql");
+  }
+
+  @AfterEach
+  void tearDown() {
+    sqlSessionFactory.getConfiguration().shutdownExecutors();
+  }
+
+  @Test
+  void shouldSelectAsynchronously() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user = mapper.getUser(1);
+      CompletableFuture<List<User>> users = mapper.getUsers();
+      CompletableFuture<Map<Integer, User>> usersById = mapper.getUsersById();
+
+      assertEquals("User1", user.join().getName());
+      assertEquals(3, users.join().size());
+      assertEquals("User2", usersById.join().get(2).getName());
+      assertEquals("User3", mapper.findUser(3).toCompletableFuture().join().get().getName());
+      assertFalse(mapper.findUser(4).toCompletableFuture().join().isPresent());
+    }
+  }
+
+  @Test
+  void shouldCommitAsynchronousInsert() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User("User4");
+      assertEquals(Integer.valueOf(1), mapper.insertUser(user).join());
+      assertEquals(Integer.valueOf(4), user.getId());
+      assertEquals(4, mapper.count());
+    }
+  }
+
+  @Test
+  void shouldCompleteExceptionally() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User("Duplicate");
+      user.setId(1);
+      CompletionException e = assertThrows(CompletionException.class, () -> mapper.insertUserWithId(user).join());
+      assertTrue(e.getCause() instanceof PersistenceException);
+    }
+  }
+
+  @Test
+  void shouldUseConfiguredExecutor() {
+    AtomicInteger tasks = new AtomicInteger();
+    ExecutorService executorService = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()) {
+      @Override
+      protected void beforeExecute(Thread t, Runnable r) {
+        tasks.incrementAndGet();
+      }
+    };
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(executorService);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("User1", sqlSession.getMapper(Mapper.class).getUser(1).join().getName());
+      assertEquals(1, tasks.get());
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  void shouldNotReturnCursorAsynchronously() {
+    sqlSessionFactory.getConfiguration().addMapper(CursorMapper.class);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorMapper mapper = sqlSession.getMapper(CursorMapper.class);
+      assertThrows(BindingException.class, mapper::getUsers);
+    }
+  }
+
+  @Test
+  void shouldNotRunAsynchronouslyWithManagedTransactions() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    Environment environment = configuration.getEnvironment();
+    configuration.setEnvironment(new Environment("managed", new ManagedTransactionFactory(), environment.getDataSource()));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(BindingException.class, () -> mapper.getUser(1));
+    }
+  }
+
+  @Test
+  void shouldShutDownDefaultAsyncExecutor() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("User1", sqlSession.getMapper(Mapper.class).getUser(1).join().getName());
+    }
+    ExecutorService defaultExecutor = configuration.getAsyncExecutor();
+    configuration.shutdownExecutors();
+    assertTrue(defaultExecutor.isShutdown());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("User2", sqlSession.getMapper(Mapper.class).getUser(2).join().getName());
+    }
+    assertNotSame(defaultExecutor, configuration.getAsyncExecutor());
+  }
+
+}
@@ -0,0 +1,171 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_flush;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchFlushTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_flush/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_flush/CreateDB.sql");
+  }
+
+  @Test
+  void shouldFlushWhenBatchFlushSizeIsReached() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = insertUsers(mapper, 25);
+      assertEquals(Integer.valueOf(19), users.get(19).getId());
+      assertNull(users.get(20).getId());
+
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals(20, results.get(0).getUpdateCounts().length);
+      assertTrue(results.get(0).getParameterObjects().isEmpty());
+      assertEquals(5, results.get(1).getUpdateCounts().length);
+      assertEquals(users.subList(20, 25), results.get(1).getParameterObjects());
+      assertEquals(Integer.valueOf(24), users.get(24).getId());
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(25, sqlSession.getMapper(Mapper.class).count());
+    }
+  }
+
+  @Test
+  void shouldMergeAutoFlushedBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = insertUsers(mapper, 35);
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      int[] updateCounts = new int[30];
+      Arrays.fill(updateCounts, 1);
+      assertArrayEquals(updateCounts, results.get(0).getUpdateCounts());
+      assertEquals(5, results.get(1).getParameterObjects().size());
+      for (int i = 0; i < users.size(); i++) {
+        assertEquals(Integer.valueOf(i), users.get(i).getId());
+      }
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(35, sqlSession.getMapper(Mapper.class).count());
+    }
+  }
+
+  @Test
+  void shouldFlushWhenBatchFlushBytesIsReached() {
+    sqlSessionFactory.getConfiguration().setBatchFlushSize(null);
+    sqlSessionFactory.getConfiguration().setBatchFlushBytes(50);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // 10 names of 5 characters, then 9 names of 6 characters reach 50 bytes
+      List<User> users = insertUsers(mapper, 25);
+      assertEquals(Integer.valueOf(18), users.get(18).getId());
+      assertNull(users.get(19).getId());
+
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertTrue(results.get(0).getParameterObjects().isEmpty());
+      assertEquals(25, results.get(0).getUpdateCounts().length + results.get(1).getUpdateCounts().length);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(25, sqlSession.getMapper(Mapper.class).count());
+    }
+  }
+
+  @Test
+  void shouldMergeInterleavedStatementsPerStatement() {
+    sqlSessionFactory.getConfiguration().setBatchFlushBytes(20);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 20; i++) {
+        User user = new User("User" + i);
+        mapper.insert(user);
+        mapper.touch(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      List<BatchResult> summaries = new ArrayList<>();
+      for (BatchResult result : results) {
+        if (result.getParameterObjects().isEmpty()) {
+          summaries.add(result);
+        }
+      }
+      assertEquals(2, summaries.size());
+      assertTrue(summaries.get(0).getSql().startsWith("insert"));
+      assertTrue(summaries.get(1).getSql().startsWith("update"));
+      int rows = 0;
+      for (BatchResult result : results) {
+        rows += result.getUpdateCounts().length;
+      }
+      assertEquals(40, rows);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(20, sqlSession.getMapper(Mapper.class).count());
+    }
+  }
+
+  @Test
+  void shouldDiscardFlushedRowsOnRollback() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      insertUsers(sqlSession.getMapper(Mapper.class), 15);
+      sqlSession.rollback();
+      assertTrue(sqlSession.flushStatements().isEmpty());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(0, sqlSession.getMapper(Mapper.class).count());
+    }
+  }
+
+  private List<User> insertUsers(Mapper mapper, int count) {
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      User user = new User("User" + i);
+      mapper.insert(user);
+      users.add(user);
+    }
+    return users;
+  }
+
+}
@@ -0,0 +1,136 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_grouping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchGroupingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_grouping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_grouping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldGroupInterleavedStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      insertOrders(sqlSession.getMapper(Mapper.class), 3);
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals("org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrder", results.get(0).getMappedStatement().getId());
+      assertEquals(3, results.get(0).getUpdateCounts().length);
+      assertEquals("org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrderLine", results.get(1).getMappedStatement().getId());
+      assertEquals(6, results.get(1).getUpdateCounts().length);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(6, sqlSession.getMapper(Mapper.class).countOrderLines());
+    }
+  }
+
+  @Test
+  void shouldCreateBatchPerSwitchWhenNotGrouping() {
+    sqlSessionFactory.getConfiguration().setBatchGroupStatements(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      insertOrders(sqlSession.getMapper(Mapper.class), 3);
+      assertEquals(6, sqlSession.flushStatements().size());
+    }
+  }
+
+  @Test
+  void shouldGroupWithAutoFlush() {
+    sqlSessionFactory.getConfiguration().setBatchFlushSize(4);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      insertOrders(sqlSession.getMapper(Mapper.class), 5);
+      sqlSession.flushStatements();
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(10, sqlSession.getMapper(Mapper.class).countOrderLines());
+    }
+  }
+
+  @Test
+  void shouldNotMoveRowsOverStatementsOnTheSameTable() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertOrder(1, "Customer1");
+      mapper.insertOrderLine(1, 1, "Product1");
+      mapper.insertOrder(2, "Customer2");
+      mapper.deleteOrderLines(1);
+      mapper.insertOrderLine(1, 1, "Product2");
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(4, results.size());
+      assertEquals(2, results.get(0).getUpdateCounts().length);
+      assertEquals("org.apache.ibatis.submitted.batch_grouping.Mapper.deleteOrderLines", results.get(2).getMappedStatement().getId());
+      assertEquals("org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrderLine", results.get(3).getMappedStatement().getId());
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(1, sqlSession.getMapper(Mapper.class).countOrderLines());
+    }
+  }
+
+  @Test
+  void shouldNotMoveRowsBeforeRowsOfAnotherTable() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertOrder(1, "Customer1");
+      mapper.insertOrderLine(1, 1, "Product1");
+      mapper.updateOrder(1, "Customer1b");
+      mapper.insertOrder(2, "Customer2");
+      // must not join the first batch of lines, which runs before order 2 is inserted
+      mapper.insertOrderLine(2, 1, "Product2");
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(5, results.size());
+      assertEquals("org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrder", results.get(3).getMappedStatement().getId());
+      assertEquals("org.apache.ibatis.submitted.batch_grouping.Mapper.insertOrderLine", results.get(4).getMappedStatement().getId());
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(2, sqlSession.getMapper(Mapper.class).countOrderLines());
+    }
+  }
+
+  private void insertOrders(Mapper mapper, int count) {
+    for (int i = 1; i <= count; i++) {
+      mapper.insertOrder(i, "Customer" + i);
+      mapper.insertOrderLine(i, 1, "Product1");
+      mapper.insertOrderLine(i, 2, "Product2");
+    }
+  }
+
+}
@@ -0,0 +1,41 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_grouping;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+public interface Mapper {
+
+  @Insert("insert into orders (id, customer) values (#{id}, #{customer})")
+  void insertOrder(@Param("id") int id, @Param("customer") String customer);
+
+  @Insert("insert into order_lines (order_id, line_no, product) values (#{orderId}, #{lineNo}, #{product})")
+  void insertOrderLine(@Param("orderId") int orderId, @Param("lineNo") int lineNo, @Param("product") String product);
+
+  @Update("update orders set customer = #{customer} where id = #{id}")
+  void updateOrder(@Param("id") int id, @Param("customer") String customer);
+
+  @Delete("delete from order_lines where order_id = #{orderId}")
+  void deleteOrderLines(int orderId);
+
+  @Select("select count(*) from order_lines")
+  int countOrderLines();
+
+}
@@ -0,0 +1,158 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_insert_rewrite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.listener.ExecutionListener;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchInsertRewriteTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_insert_rewrite/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_insert_rewrite/CreateDB.sql");
+  }
+
+  @Test
+  void shouldInsertMultipleRowsPerStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      for (int i = 0; i < 23; i++) {
+        // parameters are bound when the row is added, the object can be reused
+        user.setName("User" + i);
+        user.setAge(i);
+        mapper.insert(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(1, results.size());
+      assertArrayEquals(new int[] { 5, 5, 5, 5, 3 }, results.get(0).getUpdateCounts());
+      assertEquals(23, results.get(0).getParameterObjects().size());
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).selectAll();
+      assertEquals(23, users.size());
+      for (int i = 0; i < users.size(); i++) {
+        assertEquals("User" + i, users.get(i).getName());
+        assertEquals(Integer.valueOf(i), users.get(i).getAge());
+      }
+    }
+  }
+
+  @Test
+  void shouldOnlyPrepareMultiRowStatements() {
+    AtomicInteger prepared = new AtomicInteger();
+    sqlSessionFactory.getConfiguration().addExecutionListener(new ExecutionListener() {
+      @Override
+      public void connectionAcquired(Connection connection) {
+        prepared.incrementAndGet();
+      }
+    });
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 23; i++) {
+        mapper.insert(new User("User" + i, i));
+      }
+      sqlSession.flushStatements();
+      sqlSession.commit();
+    }
+    // one statement of 5 rows executed 4 times and one statement of 3 rows
+    assertEquals(2, prepared.get());
+  }
+
+  @Test
+  void shouldAssignGeneratedKeys() {
+    List<User> users = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 12; i++) {
+        User user = new User("User" + i, i);
+        if (i % 2 == 0) {
+          mapper.insert(user);
+        } else {
+          mapper.insertWithAge(user, i);
+        }
+        users.add(user);
+      }
+      sqlSession.flushStatements();
+      sqlSession.commit();
+    }
+    for (int i = 0; i < users.size(); i++) {
+      assertEquals(Integer.valueOf(i), users.get(i).getId());
+    }
+  }
+
+  @Test
+  void shouldAssignGeneratedKeysWithParamMap() {
+    List<User> users = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 7; i++) {
+        User user = new User("User" + i, null);
+        mapper.insertWithAge(user, i);
+        users.add(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertArrayEquals(new int[] { 5, 2 }, results.get(0).getUpdateCounts());
+      sqlSession.commit();
+    }
+    for (int i = 0; i < users.size(); i++) {
+      assertEquals(Integer.valueOf(i), users.get(i).getId());
+    }
+  }
+
+  @Test
+  void shouldNotRewriteInsertSelect() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insert(new User("User", 1));
+      sqlSession.flushStatements();
+      mapper.copy(0);
+      mapper.copy(0);
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertArrayEquals(new int[] { 1, 1 }, results.get(0).getUpdateCounts());
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(3, sqlSession.getMapper(Mapper.class).selectAll().size());
+    }
+  }
+
+}
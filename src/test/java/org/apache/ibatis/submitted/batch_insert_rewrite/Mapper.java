@@ -0,0 +1,41 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_insert_rewrite;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Insert("insert into users (name, age) values (#{name}, #{age})")
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  void insert(User user);
+
+  @Insert("insert into users (name, age) values (#{user.name}, #{age})")
+  @Options(useGeneratedKeys = true, keyProperty = "user.id")
+  void insertWithAge(@Param("user") User user, @Param("age") int age);
+
+  @Insert("insert into users (name, age) select name, age from users where id = #{id}")
+  void copy(int id);
+
+  @Select("select * from users order by id")
+  List<User> selectAll();
+
+}
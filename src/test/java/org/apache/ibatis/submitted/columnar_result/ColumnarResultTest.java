@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_result/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_result/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReadColumnsIntoArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getSamples();
+      assertEquals(4, result.getRowCount());
+      assertEquals(Arrays.asList("TS", "VALUE", "SENSOR", "READING", "ACTIVE"), result.getColumnNames());
+
+      // nulls are sorted first
+      assertArrayEquals(new long[] { 0, 10, 30, 40 }, result.getLongs("reading"));
+      assertTrue(result.isNull("reading", 0));
+      assertFalse(result.isNull("reading", 1));
+
+      long[] ts = result.getLongs("ts");
+      assertEquals(Timestamp.valueOf("2019-06-01 00:01:00").getTime(), ts[0]);
+      assertEquals(Timestamp.valueOf("2019-06-01 00:00:00").getTime(), ts[1]);
+      assertTrue(result.isNull("TS", 3));
+
+      assertArrayEquals(new double[] { 2.5, 1.5, 0, 4.5 }, result.getDoubles("value"));
+      assertTrue(result.isNull("value", 2));
+
+      assertArrayEquals(new String[] { "south", "north", "north", null }, result.getStrings("sensor"));
+      assertEquals(Arrays.asList("south", "north"), result.getDictionary("sensor"));
+      assertArrayEquals(new int[] { 0, 1, 1, -1 }, result.getCodes("sensor"));
+
+      assertArrayEquals(new Object[] { false, true, null, true }, result.getObjects("active"));
+      assertEquals(4.5, result.getValue("value", 3));
+      assertNull(result.getValue("sensor", 3));
+    }
+  }
+
+  @Test
+  void shouldKeepDecimalColumnsExact() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getAmounts();
+      assertArrayEquals(new Object[] { null, new BigDecimal("12345678901234567.89"), null, null },
+          result.getObjects("amount"));
+      assertEquals(new BigDecimal("12345678901234567.89"), result.getValue("amount", 1));
+      assertTrue(result.isNull("amount", 0));
+      assertThrows(IllegalArgumentException.class, () -> result.getDoubles("amount"));
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getSamplePage(new RowBounds(1, 2));
+      assertEquals(2, result.getRowCount());
+      assertArrayEquals(new long[] { 10, 30 }, result.getLongs("reading"));
+    }
+  }
+
+  @Test
+  void shouldReturnEmptyColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getNoSamples();
+      assertEquals(0, result.getRowCount());
+      assertEquals(0, result.getLongs("ts").length);
+      assertEquals(0, result.getDoubles("value").length);
+    }
+  }
+
+  @Test
+  void shouldRejectUnknownColumnsAndOtherTypes() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getSamples();
+      assertThrows(IllegalArgumentException.class, () -> result.getLongs("missing"));
+      assertThrows(IllegalArgumentException.class, () -> result.getLongs("value"));
+      assertThrows(IndexOutOfBoundsException.class, () -> result.getValue("value", 4));
+    }
+  }
+
+  @Test
+  void shouldBeSerializable() throws Exception {
+    ColumnarResult result;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      result = sqlSession.getMapper(Mapper.class).getSamples();
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(result);
+    }
+    ColumnarResult copy;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (ColumnarResult) in.readObject();
+    }
+    assertArrayEquals(result.getStrings("sensor"), copy.getStrings("sensor"));
+    assertTrue(copy.isNull("reading", 0));
+  }
+
+}
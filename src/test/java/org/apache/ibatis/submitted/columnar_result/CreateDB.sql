@@ -0,0 +1,32 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table samples if exists;
+
+create table samples (
+  ts timestamp,
+  value double,
+  sensor varchar(20),
+  reading int,
+  active boolean,
+  amount decimal(20, 2)
+);
+
+insert into samples (ts, value, sensor, reading, active, amount) values ('2019-06-01 00:00:00', 1.5, 'north', 10, true, 12345678901234567.89);
+insert into samples (ts, value, sensor, reading, active) values ('2019-06-01 00:01:00', 2.5, 'south', null, false);
+insert into samples (ts, value, sensor, reading, active) values ('2019-06-01 00:02:00', null, 'north', 30, null);
+insert into samples (ts, value, sensor, reading, active) values (null, 4.5, null, 40, true);
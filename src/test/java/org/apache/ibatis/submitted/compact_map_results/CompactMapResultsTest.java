@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compact_map_results;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.result.RowMap;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompactMapResultsTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compact_map_results/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compact_map_results/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReturnRowMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Map<String, Object>> users = sqlSession.getMapper(Mapper.class).getUsers();
+      assertEquals(2, users.size());
+      assertTrue(users.get(0) instanceof RowMap);
+      Map<String, Object> expected = new HashMap<>();
+      expected.put("ID", 1);
+      expected.put("NAME", "User1");
+      expected.put("EMAIL", "user1@example.com");
+      assertEquals(expected, users.get(0));
+      assertEquals(Arrays.asList("ID", "NAME", "EMAIL"), new ArrayList<>(users.get(0).keySet()));
+      assertEquals(2, users.get(1).size());
+      assertFalse(users.get(1).containsKey("EMAIL"));
+    }
+  }
+
+  @Test
+  void shouldPutNullsWhenCallingSettersOnNulls() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> user = sqlSession.getMapper(Mapper.class).getUsers().get(1);
+      assertEquals(3, user.size());
+      assertTrue(user.containsKey("EMAIL"));
+    }
+  }
+
+  @Test
+  void shouldKeepHashMapResultType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<HashMap<String, Object>> users = sqlSession.getMapper(Mapper.class).getUsersAsHashMaps();
+      assertSame(HashMap.class, users.get(0).getClass());
+    }
+  }
+
+  @Test
+  void shouldStoreMappedPropertiesInRow() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> user = sqlSession.getMapper(Mapper.class).getUsersWithResultMap().get(0);
+      assertTrue(user instanceof RowMap);
+      assertEquals("User1", user.get("userName"));
+      assertEquals(1, user.get("ID"));
+      assertFalse(user.containsKey("NAME"));
+    }
+  }
+
+  @Test
+  void shouldReturnHashMapsWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setCompactMapResults(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertSame(HashMap.class, sqlSession.getMapper(Mapper.class).getUsers().get(0).getClass());
+    }
+  }
+
+}
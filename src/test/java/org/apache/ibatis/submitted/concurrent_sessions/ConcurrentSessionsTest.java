@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.concurrent_sessions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PoolState;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentSessionsTest {
+
+  private static final int TASKS = 2000;
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/concurrent_sessions/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/concurrent_sessions/CreateDB.sql");
+  }
+
+  @Test
+  void shouldShareThePoolAndTheCacheBetweenManyThreads() throws Exception {
+    runSessions(newTaskExecutor());
+
+    PoolState poolState = ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource())
+        .getPoolState();
+    assertEquals(0, poolState.getActiveConnectionCount());
+    assertTrue(poolState.getIdleConnectionCount() <= 4);
+    assertTrue(poolState.getRequestCount() >= TASKS);
+  }
+
+  @Test
+  void shouldNotPinVirtualThreads() throws Exception {
+    ExecutorService executorService = newVirtualThreadExecutor();
+    assumeTrue(executorService != null, "virtual threads are not available");
+    Path file = Files.createTempFile("concurrent_sessions", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+      recording.start();
+      runSessions(executorService);
+      recording.stop();
+      recording.dump(file);
+
+      List<String> pinnedFrames = new ArrayList<>();
+      for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+        if (event.getEventType().getName().equals(PINNED_EVENT)) {
+          RecordedFrame frame = getApplicationFrame(event.getStackTrace());
+          if (frame != null && frame.getMethod().getType().getName().startsWith("org.apache.ibatis.")) {
+            pinnedFrames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName());
+          }
+        }
+      }
+      assertTrue(pinnedFrames.isEmpty(), "Virtual threads were pinned in " + pinnedFrames);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private void runSessions(ExecutorService executorService) throws Exception {
+    try {
+      List<Future<?>> futures = new ArrayList<>(TASKS);
+      for (int i = 0; i < TASKS; i++) {
+        final int id = i % 4 + 1;
+        futures.add(executorService.submit(() -> {
+          try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Mapper mapper = sqlSession.getMapper(Mapper.class);
+            assertEquals("User" + id, mapper.getUser(id).getName());
+            assertEquals("User" + id, mapper.getUserName(id));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  /**
+   * Returns the innermost frame outside of the JDK, whose code holds the monitor that pinned the thread. Pinning caused
+   * by the JDBC driver is not reported.
+   */
+  private static RecordedFrame getApplicationFrame(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return null;
+    }
+    for (RecordedFrame frame : stackTrace.getFrames()) {
+      String className = frame.getMethod().getType().getName();
+      if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+        return frame;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Uses one virtual thread per task when the JVM supports them, so the test also checks that the pool does not run out
+   * of carrier threads; falls back to a large pool of platform threads on older JVMs.
+   */
+  private static ExecutorService newTaskExecutor() {
+    ExecutorService executorService = newVirtualThreadExecutor();
+    return executorService == null ? Executors.newFixedThreadPool(100) : executorService;
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.submitted.cursor_nested;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -26,8 +27,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 class CursorNestedTest {
 
@@ -105,4 +110,51 @@ class CursorNestedTest {
       Assertions.assertTrue(usersCursor.isConsumed());
     }
   }
+
+  @Test
+  void shouldReturnEachParentOnceWithoutResultOrdered() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<String> names = new ArrayList<>();
+      try (Cursor<User> usersCursor = mapper.getAllUsersByRole()) {
+        usersCursor.forEach(user -> names.add(user.getName()));
+      } catch (IOException e) {
+        Assertions.fail(e);
+      }
+      Assertions.assertEquals(Arrays.asList("User1", "User2", "User3", "User4"), names);
+    }
+  }
+
+  @Test
+  void shouldFailWhenRowsAreNotGroupedByParent() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Cursor<User> usersCursor = mapper.getAllUsersByRoleResultOrdered();
+      Iterator<User> iterator = usersCursor.iterator();
+      ExecutorException e = Assertions.assertThrows(ExecutorException.class, () -> iterator.forEachRemaining(u -> {
+      }));
+      Assertions.assertTrue(e.getMessage().contains("are not grouped by the parent object"));
+    }
+  }
+
+  @Test
+  void shouldOnlyCheckRowsAgainstTheConfiguredNumberOfParents() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      // the second row of User1 comes after 1099 other parents
+      Cursor<User> usersCursor = sqlSession.getMapper(Mapper.class).getManyUsersThenFirstUserAgain();
+      List<User> users = new ArrayList<>();
+      usersCursor.forEach(users::add);
+      Assertions.assertEquals(1101, users.size());
+      Assertions.assertEquals(users.get(0).getId(), users.get(1100).getId());
+    }
+    sqlSessionFactory.getConfiguration().setResultOrderedCheckSize(2048);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Iterator<User> iterator = sqlSession.getMapper(Mapper.class).getManyUsersThenFirstUserAgain().iterator();
+      ExecutorException e = Assertions.assertThrows(ExecutorException.class, () -> iterator.forEachRemaining(u -> {
+      }));
+      Assertions.assertTrue(e.getMessage().contains("are not grouped by the parent object"));
+    } finally {
+      sqlSessionFactory.getConfiguration().setResultOrderedCheckSize(1024);
+    }
+  }
 }
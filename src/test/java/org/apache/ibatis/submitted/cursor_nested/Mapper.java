@@ -21,4 +21,10 @@ public interface Mapper {
 
   Cursor<User> getAllUsers();
 
+  Cursor<User> getAllUsersByRole();
+
+  Cursor<User> getAllUsersByRoleResultOrdered();
+
+  Cursor<User> getManyUsersThenFirstUserAgain();
+
 }
@@ -0,0 +1,207 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_prefetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CursorPrefetchTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_prefetch/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_prefetch/CreateDB.sql");
+  }
+
+  @Test
+  void shouldIterateAllRows() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = prefetch(sqlSession.getMapper(Mapper.class).getAllUsers());
+      assertFalse(cursor.isOpen());
+      assertEquals(-1, cursor.getCurrentIndex());
+
+      List<String> names = new ArrayList<>();
+      Iterator<User> iterator = cursor.iterator();
+      assertTrue(cursor.isOpen());
+      while (iterator.hasNext()) {
+        names.add(iterator.next().getName());
+        assertEquals(names.size() - 1, cursor.getCurrentIndex());
+      }
+      assertEquals(8, names.size());
+      assertEquals("User8", names.get(7));
+      assertTrue(cursor.isConsumed());
+      assertFalse(cursor.isOpen());
+      cursor.close();
+    }
+  }
+
+  @Test
+  void shouldCloseBeforeAllRowsAreFetched() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = prefetch(sqlSession.getMapper(Mapper.class).getAllUsers());
+      Iterator<User> iterator = cursor.iterator();
+      assertEquals("User1", iterator.next().getName());
+
+      cursor.close();
+      assertFalse(cursor.isOpen());
+      assertFalse(iterator.hasNext());
+      assertEquals(0, cursor.getCurrentIndex());
+    }
+  }
+
+  @Test
+  void shouldStreamRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = prefetch(sqlSession.getMapper(Mapper.class).getAllUsers());
+      try (Stream<User> stream = cursor.stream()) {
+        List<Integer> ids = stream.filter(user -> user.getId() % 2 == 0).map(User::getId).collect(Collectors.toList());
+        assertEquals(4, ids.size());
+        assertEquals(Integer.valueOf(8), ids.get(3));
+      }
+      assertFalse(cursor.isOpen());
+    }
+  }
+
+  @Test
+  void shouldRethrowFetchErrorsAfterPreviousRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Iterator<User> iterator = prefetch(sqlSession.getMapper(Mapper.class).getUsersWithInvalidId()).iterator();
+      List<Integer> ids = new ArrayList<>();
+      Exception e = assertThrows(PersistenceException.class, () -> {
+        while (iterator.hasNext()) {
+          ids.add(iterator.next().getId());
+        }
+      });
+      assertTrue(e.getMessage().contains("four"));
+      assertEquals(Arrays.asList(1, 2, 3), ids.subList(0, 3));
+      assertFalse(ids.contains(4));
+    }
+  }
+
+  @Test
+  void shouldFetchOnGivenExecutor() throws Exception {
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    AtomicInteger tasks = new AtomicInteger();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> users = sqlSession.getMapper(Mapper.class).getAllUsers();
+      try (Cursor<User> cursor = new PrefetchingCursor<>(users, 2, command -> {
+        tasks.incrementAndGet();
+        executorService.execute(command);
+      })) {
+        int count = 0;
+        for (User user : cursor) {
+          count++;
+        }
+        assertEquals(8, count);
+      }
+      assertEquals(1, tasks.get());
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  void shouldStreamNullItems() {
+    Cursor<String> cursor = prefetch(new ListCursor<>(Arrays.asList("a", null, "b")));
+    Spliterator<String> spliterator = cursor.spliterator();
+    assertFalse(spliterator.hasCharacteristics(Spliterator.NONNULL));
+    List<String> items = StreamSupport.stream(spliterator, false).collect(Collectors.toList());
+    assertEquals(Arrays.asList("a", null, "b"), items);
+    assertTrue(cursor.isConsumed());
+  }
+
+  @Test
+  void shouldNotPrefetchNestedSelects() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> cursor = sqlSession.getMapper(Mapper.class).getUsersWithNestedSelect();
+      assertThrows(IllegalArgumentException.class, () -> prefetch(cursor));
+      assertEquals("User1", cursor.iterator().next().getName());
+    }
+  }
+
+  private static class ListCursor<T> implements Cursor<T> {
+
+    private final List<T> items;
+    private boolean started;
+
+    ListCursor(List<T> items) {
+      this.items = items;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return started;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return false;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return -1;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      started = true;
+      return items.iterator();
+    }
+
+    @Override
+    public void close() {
+      started = false;
+    }
+  }
+
+  private static <T> Cursor<T> prefetch(Cursor<T> cursor) {
+    return new PrefetchingCursor<>(cursor, 2, null);
+  }
+
+}
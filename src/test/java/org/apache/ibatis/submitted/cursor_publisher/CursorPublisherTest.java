@@ -0,0 +1,229 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_publisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.CursorPublisher.Subscriber;
+import org.apache.ibatis.cursor.CursorPublisher.Subscription;
+import org.apache.ibatis.datasource.pooled.PoolState;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CursorPublisherTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_publisher/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_publisher/CreateDB.sql");
+  }
+
+  @Test
+  void shouldPublishItemsOnDemand() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    long requestCount = poolState().getRequestCount();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers(1).subscribe(subscriber);
+    }
+    assertEquals(requestCount, poolState().getRequestCount());
+
+    subscriber.subscription.request(2);
+    assertEquals(2, subscriber.items.size());
+    assertEquals("User2", subscriber.items.get(0).getName());
+    assertEquals("User3", subscriber.items.get(1).getName());
+    assertFalse(subscriber.completed);
+    assertEquals(1, poolState().getActiveConnectionCount());
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals(4, subscriber.items.size());
+    assertEquals("User5", subscriber.items.get(3).getName());
+    assertTrue(subscriber.completed);
+    assertNull(subscriber.error);
+    assertEquals(0, poolState().getActiveConnectionCount());
+  }
+
+  @Test
+  void shouldAllowRequestsFromOnNext() {
+    RecordingSubscriber subscriber = new RecordingSubscriber() {
+      @Override
+      public void onNext(User item) {
+        super.onNext(item);
+        subscription.request(1);
+      }
+    };
+    publisher(mapper -> mapper.getUsers(0)).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    assertEquals(5, subscriber.items.size());
+    assertTrue(subscriber.completed);
+    assertEquals(0, poolState().getActiveConnectionCount());
+  }
+
+  @Test
+  void shouldCloseSessionOnCancel() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher(mapper -> mapper.getUsers(0)).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    assertEquals(1, poolState().getActiveConnectionCount());
+
+    subscriber.subscription.cancel();
+    assertEquals(0, poolState().getActiveConnectionCount());
+    subscriber.subscription.request(1);
+    assertEquals(1, subscriber.items.size());
+    assertFalse(subscriber.completed);
+    assertNull(subscriber.error);
+  }
+
+  @Test
+  void shouldCloseSessionWhenOnNextThrows() {
+    IllegalStateException failure = new IllegalStateException("rejected");
+    RecordingSubscriber subscriber = new RecordingSubscriber() {
+      @Override
+      public void onNext(User item) {
+        super.onNext(item);
+        throw failure;
+      }
+    };
+    publisher(mapper -> mapper.getUsers(0)).subscribe(subscriber);
+    subscriber.subscription.request(3);
+    assertEquals(1, subscriber.items.size());
+    assertSame(failure, subscriber.error);
+    assertEquals(0, poolState().getActiveConnectionCount());
+
+    subscriber.error = null;
+    subscriber.subscription.request(1);
+    assertEquals(1, subscriber.items.size());
+    assertNull(subscriber.error);
+    assertFalse(subscriber.completed);
+  }
+
+  @Test
+  void shouldSubscribeEachSubscriberToItsOwnQuery() {
+    CursorPublisher<User> publisher = publisher(mapper -> mapper.getUsers(3));
+    RecordingSubscriber first = new RecordingSubscriber();
+    RecordingSubscriber second = new RecordingSubscriber();
+    publisher.subscribe(first);
+    publisher.subscribe(second);
+    first.subscription.request(1);
+    second.subscription.request(5);
+    first.subscription.request(5);
+    assertEquals(2, first.items.size());
+    assertEquals(2, second.items.size());
+    assertTrue(first.completed);
+    assertTrue(second.completed);
+  }
+
+  @Test
+  void shouldCompleteWithoutItems() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher(Mapper::getNoUsers).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    assertTrue(subscriber.items.isEmpty());
+    assertTrue(subscriber.completed);
+    assertEquals(0, poolState().getActiveConnectionCount());
+  }
+
+  @Test
+  void shouldSignalQueryErrors() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher(Mapper::getFailingUsers).subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertTrue(subscriber.error instanceof PersistenceException);
+    assertFalse(subscriber.completed);
+    assertEquals(0, poolState().getActiveConnectionCount());
+  }
+
+  @Test
+  void shouldRejectNonPositiveRequests() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    long requestCount = poolState().getRequestCount();
+    publisher(mapper -> mapper.getUsers(0)).subscribe(subscriber);
+    subscriber.subscription.request(0);
+    assertTrue(subscriber.error instanceof IllegalArgumentException);
+    assertTrue(subscriber.items.isEmpty());
+    assertEquals(requestCount, poolState().getRequestCount());
+  }
+
+  @Test
+  void shouldOnlyPublishSelects() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(BindingException.class, mapper::deleteUsers);
+    }
+  }
+
+  private CursorPublisher<User> publisher(Function<Mapper, CursorPublisher<User>> call) {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return call.apply(sqlSession.getMapper(Mapper.class));
+    }
+  }
+
+  private PoolState poolState() {
+    return ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()).getPoolState();
+  }
+
+  private static class RecordingSubscriber implements Subscriber<User> {
+    Subscription subscription;
+    final List<User> items = new ArrayList<>();
+    Throwable error;
+    boolean completed;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(User item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
+}
@@ -32,6 +32,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class CursorSimpleTest {
 
@@ -360,6 +362,19 @@ class CursorSimpleTest {
     }
   }
 
+  @Test
+  void shouldStreamRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> usersCursor = sqlSession.getMapper(Mapper.class).getAllUsers();
+      try (Stream<User> stream = usersCursor.stream()) {
+        List<String> names = stream.filter(user -> user.getId() % 2 == 0).map(User::getName).collect(Collectors.toList());
+        Assertions.assertEquals(2, names.size());
+        Assertions.assertEquals("User4", names.get(1));
+      }
+      Assertions.assertFalse(usersCursor.isOpen());
+    }
+  }
+
   @Test
   void shouldThrowIllegalStateExceptionUsingIteratorOnSessionClosed() {
     Cursor<User> usersCursor;
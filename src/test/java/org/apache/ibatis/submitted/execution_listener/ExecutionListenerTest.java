@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.execution_listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.listener.ExecutionListener;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExecutionListenerTest {
+
+  private static final RecordingListener listener = new RecordingListener();
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/execution_listener/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/execution_listener/CreateDB.sql");
+    sqlSessionFactory.getConfiguration().addExecutionListener(listener);
+  }
+
+  @BeforeEach
+  void clearEvents() {
+    listener.events.clear();
+  }
+
+  @Test
+  void shouldNotifyQueryLifecycle() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getUserNames()).containsExactly("User1", "User2");
+    }
+    assertThat(listener.events).containsExactly("before getUserNames", "connection", "row User1", "row User2",
+        "after getUserNames");
+  }
+
+  @Test
+  void shouldNotifyFailures() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(PersistenceException.class, mapper::getFromMissingTable);
+    }
+    assertThat(listener.events).startsWith("before getFromMissingTable").endsWith("failed getFromMissingTable");
+  }
+
+  @Test
+  void shouldNotifyUpdates() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).updateUserName(2, "Second")).isEqualTo(1);
+      sqlSession.rollback(true);
+    }
+    assertThat(listener.events).containsExactly("before updateUserName", "connection", "after updateUserName");
+  }
+
+  @Test
+  void shouldNotifyCacheHits() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getCachedUserName(1)).isEqualTo("User1");
+      assertThat(mapper.getCachedUserName(1)).isEqualTo("User1");
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThat(sqlSession.getMapper(Mapper.class).getCachedUserName(1)).isEqualTo("User1");
+    }
+    assertThat(listener.events).containsExactly("before getCachedUserName", "connection", "row User1",
+        "after getCachedUserName", "local cache getCachedUserName", "cache getCachedUserName");
+  }
+
+  @Test
+  void shouldHaveNoListenerByDefault() {
+    Configuration configuration = new Configuration();
+    assertThat(configuration.getExecutionListener()).isNull();
+    configuration.addExecutionListener(listener);
+    assertThat(configuration.getExecutionListener()).isSameAs(listener);
+    configuration.addExecutionListener(new ExecutionListener() {
+    });
+    assertThat(configuration.getExecutionListeners()).hasSize(2);
+    assertThat(configuration.getExecutionListener()).isNotSameAs(listener);
+  }
+
+  static class RecordingListener implements ExecutionListener {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void beforeExecute(MappedStatement ms, Object parameter) {
+      events.add("before " + name(ms));
+    }
+
+    @Override
+    public void afterExecute(MappedStatement ms, Object parameter, Throwable failure) {
+      events.add((failure == null ? "after " : "failed ") + name(ms));
+    }
+
+    @Override
+    public void rowMapped(MappedStatement ms, Object row) {
+      events.add("row " + row);
+    }
+
+    @Override
+    public void cacheHit(MappedStatement ms, Object parameter, boolean secondLevel) {
+      events.add((secondLevel ? "cache " : "local cache ") + name(ms));
+    }
+
+    @Override
+    public void connectionAcquired(Connection connection) {
+      events.add("connection");
+    }
+
+    private String name(MappedStatement ms) {
+      return ms.getId().substring(ms.getId().lastIndexOf('.') + 1);
+    }
+  }
+
+}
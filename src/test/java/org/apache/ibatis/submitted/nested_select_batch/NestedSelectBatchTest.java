@@ -0,0 +1,272 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.nested_select_batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NestedSelectBatchTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private QueryCounter queryCounter;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/nested_select_batch/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    queryCounter = new QueryCounter();
+    sqlSessionFactory.getConfiguration().addInterceptor(queryCounter);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/nested_select_batch/CreateDB.sql");
+  }
+
+  @AfterEach
+  void tearDown() {
+    sqlSessionFactory.getConfiguration().shutdownExecutors();
+  }
+
+  @Test
+  void shouldLoadNestedSelectsWithOneQueryPerMapping() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrders();
+      assertOrders(orders);
+      assertEquals(3, queryCounter.count.get());
+    }
+  }
+
+  @Test
+  void shouldLoadNestedSelectsDeclaredWithAnnotations() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersWithAnnotations();
+      assertOrders(orders);
+      assertEquals(3, queryCounter.count.get());
+    }
+  }
+
+  @Test
+  void shouldSplitKeysByBatchSize() {
+    sqlSessionFactory.getConfiguration().setNestedSelectBatchSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrders();
+      assertOrders(orders);
+      // 3 customers in 2 queries, 5 orders in 3 queries
+      assertEquals(6, queryCounter.count.get());
+    }
+  }
+
+  @Test
+  void shouldUseSingleSelectWithResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).getOrders((ResultHandler<Order>) context -> orders.add(context.getResultObject()));
+      assertOrders(orders);
+      // customer 1 is found in the local cache for the second order
+      assertEquals(1 + 3 + 5, queryCounter.count.get());
+    }
+  }
+
+  @Test
+  void shouldLoadLazyPropertyOfAllSiblings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersLazily();
+      assertEquals(1, queryCounter.count.get());
+
+      assertEquals("Apple,Banana", products(orders.get(0)));
+      assertEquals(2, queryCounter.count.get());
+      assertEquals("Date,Elderberry,Fig", products(orders.get(3)));
+      assertEquals(2, queryCounter.count.get());
+
+      assertOrders(orders);
+      assertEquals(3, queryCounter.count.get());
+    }
+  }
+
+  @Test
+  void shouldLoadLazyPropertyBySiblingWindows() {
+    sqlSessionFactory.getConfiguration().setNestedSelectBatchSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersLazily();
+      assertEquals("Apple,Banana", products(orders.get(0)));
+      assertEquals("Cherry", products(orders.get(1)));
+      assertEquals(2, queryCounter.count.get());
+
+      // loads the lines of orders 4 and 3
+      assertEquals("Date,Elderberry,Fig", products(orders.get(3)));
+      assertTrue(orders.get(2).getLines().isEmpty());
+      assertEquals(3, queryCounter.count.get());
+
+      assertTrue(orders.get(4).getLines().isEmpty());
+      assertEquals(4, queryCounter.count.get());
+    }
+  }
+
+  @Test
+  void shouldRunNestedSelectsOfDifferentMappingsConcurrently() {
+    sqlSessionFactory.getConfiguration().setParallelNestedSelects(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersWithPlainSelects();
+      assertOrders(orders);
+      // each distinct key is selected once
+      assertEquals(1 + 3 + 5, queryCounter.count.get());
+      assertEquals(2, queryCounter.threads.size());
+    }
+  }
+
+  @Test
+  void shouldRunNestedSelectsSequentiallyOutsideAutoCommit() {
+    sqlSessionFactory.getConfiguration().setParallelNestedSelects(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersWithPlainSelects();
+      assertOrders(orders);
+      assertEquals(1 + 3 + 5, queryCounter.count.get());
+      assertEquals(1, queryCounter.threads.size());
+    }
+  }
+
+  @Test
+  void shouldRunBatchSelectsOnNestedSelectExecutor() {
+    ExecutorService executorService = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "custom-nested-select"));
+    sqlSessionFactory.getConfiguration().setParallelNestedSelects(true);
+    sqlSessionFactory.getConfiguration().setNestedSelectExecutor(executorService);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrders();
+      assertOrders(orders);
+      assertEquals(3, queryCounter.count.get());
+      assertTrue(queryCounter.threads.stream().anyMatch(thread -> thread.getName().equals("custom-nested-select")));
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  void shouldShutDownDefaultNestedSelectExecutor() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setParallelNestedSelects(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      assertOrders(sqlSession.getMapper(Mapper.class).getOrdersWithPlainSelects());
+    }
+    ExecutorService defaultExecutor = configuration.getNestedSelectExecutor();
+    configuration.shutdownExecutors();
+    assertTrue(defaultExecutor.isShutdown());
+    assertNotSame(defaultExecutor, configuration.getNestedSelectExecutor());
+    configuration.shutdownExecutors();
+
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try {
+      configuration.setNestedSelectExecutor(executorService);
+      configuration.shutdownExecutors();
+      assertFalse(executorService.isShutdown());
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  void shouldWaitForAllNestedSelectsWhenOneFails() {
+    sqlSessionFactory.getConfiguration().setParallelNestedSelects(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      PersistenceException e = assertThrows(PersistenceException.class, mapper::getOrdersWithFailingSelect);
+      assertTrue(e.getMessage().contains("MISSING_LINES"));
+      assertEquals(0, queryCounter.running.get());
+    }
+  }
+
+  private void assertOrders(List<Order> orders) {
+    assertEquals(5, orders.size());
+    assertEquals("Customer1", orders.get(0).getCustomer().getName());
+    assertEquals("Customer2", orders.get(1).getCustomer().getName());
+    assertEquals("Customer1", orders.get(2).getCustomer().getName());
+    assertEquals("Customer3", orders.get(3).getCustomer().getName());
+    assertNull(orders.get(4).getCustomer());
+
+    assertEquals("Apple,Banana", products(orders.get(0)));
+    assertEquals("Cherry", products(orders.get(1)));
+    assertTrue(orders.get(2).getLines().isEmpty());
+    assertEquals("Date,Elderberry,Fig", products(orders.get(3)));
+    assertTrue(orders.get(4).getLines().isEmpty());
+  }
+
+  private String products(Order order) {
+    return order.getLines().stream().map(OrderLine::getProduct).collect(Collectors.joining(","));
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }))
+  public static class QueryCounter implements Interceptor {
+
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      count.incrementAndGet();
+      threads.add(Thread.currentThread());
+      running.incrementAndGet();
+      try {
+        return invocation.proceed();
+      } finally {
+        running.decrementAndGet();
+      }
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+  }
+
+}
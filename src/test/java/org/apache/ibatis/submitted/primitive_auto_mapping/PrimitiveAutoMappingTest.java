@@ -0,0 +1,117 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.primitive_auto_mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Reader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrimitiveAutoMappingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/primitive_auto_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/primitive_auto_mapping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapNumericColumnsToPrimitiveProperties() {
+    List<Sample> samples = getSamples();
+    assertEquals(2, samples.size());
+    Sample sample = samples.get(0);
+    assertEquals(1, sample.getId());
+    assertEquals(7, sample.getCount());
+    assertEquals(3000000000L, sample.getTotal());
+    assertEquals(0.5, sample.getRatio());
+  }
+
+  @Test
+  void shouldNotSetPrimitivePropertiesOnNulls() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(true);
+    Sample sample = getSamples().get(1);
+    assertEquals(2, sample.getId());
+    assertEquals(-1, sample.getCount());
+    assertEquals(-1L, sample.getTotal());
+    assertEquals(-1.0, sample.getRatio());
+  }
+
+  @Test
+  void shouldReadThroughPrimitiveTypeHandler() {
+    CountingIntegerTypeHandler typeHandler = new CountingIntegerTypeHandler();
+    sqlSessionFactory.getConfiguration().getTypeHandlerRegistry().register(int.class, typeHandler);
+    List<Sample> samples = getSamples();
+    assertEquals(7, samples.get(0).getCount());
+    assertEquals(-1, samples.get(1).getCount());
+    // id and count of both rows
+    assertEquals(4, typeHandler.primitiveReads);
+  }
+
+  @Test
+  void shouldUseValuesConvertedBySubclassedTypeHandler() {
+    sqlSessionFactory.getConfiguration().getTypeHandlerRegistry().register(int.class, new IncrementingIntegerTypeHandler());
+    Sample sample = getSamples().get(0);
+    assertEquals(2, sample.getId());
+    assertEquals(8, sample.getCount());
+  }
+
+  private List<Sample> getSamples() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return sqlSession.getMapper(Mapper.class).getSamples();
+    }
+  }
+
+  public static class CountingIntegerTypeHandler extends IntegerTypeHandler {
+    private int primitiveReads;
+
+    @Override
+    public Class<?> getPrimitiveType() {
+      return int.class;
+    }
+
+    @Override
+    public int getIntResult(ResultSet rs, int columnIndex) throws SQLException {
+      primitiveReads++;
+      return super.getIntResult(rs, columnIndex);
+    }
+  }
+
+  public static class IncrementingIntegerTypeHandler extends IntegerTypeHandler {
+    @Override
+    public Integer getNullableResult(ResultSet rs, String columnName) throws SQLException {
+      Integer value = super.getNullableResult(rs, columnName);
+      return value == null ? null : value + 1;
+    }
+  }
+
+}
@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.varia.NullAppender;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementLogTest {
+
+  /**
+   * Registered for this package at DEBUG level in log4j.properties.
+   */
+  public static class RecordingAppender extends NullAppender {
+    private static final List<String> messages = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void doAppend(LoggingEvent event) {
+      messages.add(event.getMessage().toString());
+    }
+  }
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_log/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_log/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetSettings() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setStatementLogSampleRate(null);
+    configuration.setSlowStatementLogThreshold(null);
+    RecordingAppender.messages.clear();
+  }
+
+  @Test
+  void shouldLogJdbcCallsOfEveryStatementByDefault() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUserName(1)).isEqualTo("User1");
+      assertThat(mapper.getUserName(2)).isEqualTo("User2");
+    }
+    assertThat(RecordingAppender.messages).filteredOn(m -> m.contains("Preparing:")).hasSize(2);
+    assertThat(RecordingAppender.messages).filteredOn(m -> m.contains("Parameters: 1(Integer)")).hasSize(1);
+  }
+
+  @Test
+  void shouldLogSampledStatementsOnly() {
+    sqlSessionFactory.getConfiguration().setStatementLogSampleRate(Integer.MAX_VALUE);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 10; i++) {
+        assertThat(mapper.getUserName(1)).isEqualTo("User1");
+        sqlSession.clearCache();
+      }
+    }
+    assertThat(RecordingAppender.messages).isEmpty();
+  }
+
+  @Test
+  void shouldLogSlowStatementsInASingleMessage() {
+    sqlSessionFactory.getConfiguration().setSlowStatementLogThreshold(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUserName(1)).isEqualTo("User1");
+      assertThat(mapper.updateUserName(2, "Second")).isEqualTo(1);
+      sqlSession.rollback(true);
+    }
+    assertThat(RecordingAppender.messages).hasSize(2);
+    assertThat(RecordingAppender.messages.get(0)).contains("Slow: ")
+        .contains("select name from users where id = ? | Parameters: 1(Integer)");
+    assertThat(RecordingAppender.messages.get(1)).contains("Slow: ")
+        .contains("update users set name = ? where id = ? | Parameters: Second(String), 2(Integer)");
+  }
+
+  @Test
+  void shouldNotLogStatementsFasterThanThreshold() {
+    sqlSessionFactory.getConfiguration().setSlowStatementLogThreshold(60000);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getUserName(1)).isEqualTo("User1");
+    }
+    assertThat(RecordingAppender.messages).isEmpty();
+  }
+
+}
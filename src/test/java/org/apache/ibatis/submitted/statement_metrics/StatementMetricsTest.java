@@ -0,0 +1,203 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementMetricsRegistry;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementMetricsTest {
+
+  private static final String GET_USER_NAMES = Mapper.class.getName() + ".getUserNames";
+  private static final String UPDATE_USER_NAME = Mapper.class.getName() + ".updateUserName";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_metrics/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_metrics/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void enableMetrics() {
+    sqlSessionFactory.getConfiguration().setStatementMetricsEnabled(true);
+    sqlSessionFactory.getConfiguration().setSlowStatementLogThreshold(null);
+    sqlSessionFactory.getConfiguration().getStatementMetricsRegistry().reset();
+  }
+
+  @Test
+  void shouldRecordQueriesAndUpdates() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 3; i++) {
+        assertThat(mapper.getUserNames()).hasSize(2);
+        sqlSession.clearCache();
+      }
+      assertThat(mapper.updateUserName(1, "First")).isEqualTo(1);
+      sqlSession.rollback(true);
+    }
+    StatementMetricsRegistry registry = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry();
+    StatementMetrics query = registry.getAllMetrics().get(GET_USER_NAMES);
+    assertThat(query.getExecutionCount()).isEqualTo(3);
+    assertThat(query.getErrorCount()).isZero();
+    assertThat(query.getRowCount()).isEqualTo(6);
+    assertThat(query.getLatencyHistogram().getCount()).isEqualTo(3);
+    assertThat(query.getPrepareTimeMillis()).isPositive();
+    assertThat(query.getExecuteTimeMillis()).isPositive();
+    assertThat(query.getMappingTimeMillis()).isPositive();
+    assertThat(query.getMaxLatencyMillis()).isGreaterThanOrEqualTo(query.getMedianLatencyMillis());
+    StatementMetrics update = registry.getAllMetrics().get(UPDATE_USER_NAME);
+    assertThat(update.getExecutionCount()).isEqualTo(1);
+    assertThat(update.getRowCount()).isEqualTo(1);
+    assertThat(update.getMappingTimeMillis()).isZero();
+  }
+
+  @Test
+  void shouldCountRowsHandedToResultHandler() {
+    List<String> names = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).handleUserNames(context -> names.add(context.getResultObject()));
+    }
+    assertThat(names).hasSize(2);
+    StatementMetrics query = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry()
+        .getMetrics(Mapper.class.getName() + ".handleUserNames");
+    assertThat(query.getExecutionCount()).isEqualTo(1);
+    assertThat(query.getRowCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRecordBatchesWhenFlushed() {
+    StatementMetrics update = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry()
+        .getMetrics(UPDATE_USER_NAME);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.updateUserName(1, "First");
+      mapper.updateUserName(2, "Second");
+      assertThat(update.getExecutionCount()).isZero();
+      assertThat(update.getExecuteTimeMillis()).isZero();
+      sqlSession.flushStatements();
+      sqlSession.rollback(true);
+    }
+    assertThat(update.getExecutionCount()).isEqualTo(1);
+    assertThat(update.getErrorCount()).isZero();
+    assertThat(update.getRowCount()).isEqualTo(2);
+    assertThat(update.getExecuteTimeMillis()).isPositive();
+  }
+
+  @Test
+  void shouldRecordBatchErrorsWhenFlushed() {
+    StatementMetrics insert = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry()
+        .getMetrics(Mapper.class.getName() + ".insertUser");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      sqlSession.getMapper(Mapper.class).insertUser(3, "A name longer than the column");
+      assertThrows(PersistenceException.class, sqlSession::flushStatements);
+      sqlSession.rollback(true);
+    }
+    assertThat(insert.getExecutionCount()).isEqualTo(1);
+    assertThat(insert.getErrorCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotRecordCacheHits() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUserNames();
+      mapper.getUserNames();
+    }
+    StatementMetrics query = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry().getMetrics(GET_USER_NAMES);
+    assertThat(query.getExecutionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecordErrors() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(PersistenceException.class, mapper::getFromMissingTable);
+    }
+    StatementMetrics query = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry()
+        .getMetrics(Mapper.class.getName() + ".getFromMissingTable");
+    assertThat(query.getExecutionCount()).isEqualTo(1);
+    assertThat(query.getErrorCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCountSlowExecutions() {
+    sqlSessionFactory.getConfiguration().setSlowStatementLogThreshold(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUserNames();
+    }
+    StatementMetrics query = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry().getMetrics(GET_USER_NAMES);
+    assertThat(query.getSlowCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotRecordWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setStatementMetricsEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUserNames();
+    }
+    StatementMetrics query = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry().getMetrics(GET_USER_NAMES);
+    assertThat(query.getExecutionCount()).isZero();
+  }
+
+  @Test
+  void shouldExposeMetricsThroughJmx() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    StatementMetricsRegistry registry = sqlSessionFactory.getConfiguration().getStatementMetricsRegistry();
+    registry.registerMBeans(server, "statement_metrics");
+    try {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        Mapper mapper = sqlSession.getMapper(Mapper.class);
+        mapper.getUserNames();
+        mapper.updateUserName(1, "First");
+        sqlSession.rollback(true);
+      }
+      ObjectName name = registry.objectName(UPDATE_USER_NAME);
+      assertThat(server.isRegistered(name)).isTrue();
+      assertThat(server.getAttribute(name, "ExecutionCount")).isEqualTo(1L);
+      assertThat(server.getAttribute(registry.objectName(GET_USER_NAMES), "RowCount")).isEqualTo(2L);
+    } finally {
+      registry.unregisterMBeans();
+    }
+    assertThat(server.queryNames(new ObjectName("org.apache.ibatis:type=StatementMetrics,*"), null)).isEmpty();
+  }
+
+}